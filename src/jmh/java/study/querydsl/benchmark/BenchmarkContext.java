@@ -0,0 +1,50 @@
+package study.querydsl.benchmark;
+
+import javax.persistence.EntityManager;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.QuerydslApplication;
+import study.querydsl.support.BenchmarkSupport;
+
+/**
+ * 벤치마크용 애플리케이션 컨텍스트
+ * 웹 서버 없이 임베디드(in-memory) H2로 띄우고 SQL 로그/통계처럼 측정을 왜곡하는 설정은 끈다.
+ */
+public final class BenchmarkContext {
+
+	private BenchmarkContext() {
+	}
+
+	public static ConfigurableApplicationContext start(String... extraArgs) {
+		String[] defaults = {
+			"--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+			"--spring.jpa.properties.hibernate.format_sql=false",
+			"--spring.jpa.properties.hibernate.use_sql_comments=false",
+			"--spring.jpa.properties.hibernate.generate_statistics=false",
+			"--decorator.datasource.p6spy.enable-logging=false",
+			"--logging.level.org.hibernate.SQL=warn",
+			"--logging.level.org.hibernate.type=warn",
+			"--logging.level.study.querydsl=warn"
+		};
+		String[] args = new String[defaults.length + extraArgs.length];
+		System.arraycopy(defaults, 0, args, 0, defaults.length);
+		System.arraycopy(extraArgs, 0, args, defaults.length, extraArgs.length);
+
+		return new SpringApplicationBuilder(QuerydslApplication.class)
+			.web(WebApplicationType.NONE)
+			.run(args); // 명령행 인자는 application.yml보다 우선한다
+	}
+
+	/**
+	 * teams개의 팀과 members명의 회원을 만든다. 데이터는 테스트와 같은 BenchmarkSupport.seedMembers로 넣는다
+	 */
+	public static void seed(ConfigurableApplicationContext context, int members, int teams) {
+		EntityManager em = context.getBean(EntityManager.class);
+		context.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+			BenchmarkSupport.seedMembers(em, members, teams);
+			em.createNativeQuery("analyze").executeUpdate(); // 옵티마이저 통계 갱신
+		});
+	}
+}
@@ -0,0 +1,96 @@
+package study.querydsl.benchmark;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.jpa.QueryHints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.entity.Member;
+
+/**
+ * 회원 N명을 팀과 함께 엔티티로 로딩할 때의 시간과 할당량 (트랜잭션 커밋/flush 포함)
+ * - managed: 일반 트랜잭션. 엔티티마다 스냅샷을 만들고 커밋 때 dirty checking 한다
+ * - readOnlyHint: HINT_READONLY. 스냅샷을 만들지 않는다
+ * - readOnlyTransaction: @Transactional(readOnly = true)와 같다. 세션 전체가 읽기 전용 + flush 하지 않음
+ * - dto: 엔티티 없이 DTO로 바로 조회 (비교 기준)
+ * 할당량은 gc.alloc.rate.norm(B/op)을 본다. enhancement 전후 비교는 -PnoEnhance로 한 번 더 실행한다.
+ * 실행: ./gradlew jmh -PjmhIncludes=EntityHydrationBenchmark -PjmhProfilers=gc [-PnoEnhance]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EntityHydrationBenchmark {
+
+	private static final int TEAMS = 100;
+
+	@Param({"1000", "10000"})
+	int members;
+
+	ConfigurableApplicationContext context;
+	JPAQueryFactory queryFactory;
+	TransactionTemplate readWrite;
+	TransactionTemplate readOnly;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start();
+		BenchmarkContext.seed(context, members, TEAMS);
+		queryFactory = context.getBean(JPAQueryFactory.class);
+		readWrite = new TransactionTemplate(context.getBean(TransactionTemplate.class).getTransactionManager());
+		readOnly = new TransactionTemplate(readWrite.getTransactionManager());
+		readOnly.setReadOnly(true);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public int managed() {
+		return readWrite.execute(status -> loadMembersWithTeams(false).size());
+	}
+
+	@Benchmark
+	public int readOnlyHint() {
+		return readWrite.execute(status -> loadMembersWithTeams(true).size());
+	}
+
+	@Benchmark
+	public int readOnlyTransaction() {
+		return readOnly.execute(status -> loadMembersWithTeams(false).size());
+	}
+
+	@Benchmark
+	public List<MemberTeamDto> dto() {
+		return readOnly.execute(status -> queryFactory
+			.select(new QMemberTeamDto(member.Id, member.username, member.age, team.Id, team.name))
+			.from(member)
+			.join(member.team, team)
+			.fetch());
+	}
+
+	private List<Member> loadMembersWithTeams(boolean readOnlyHint) {
+		return queryFactory
+			.selectFrom(member)
+			.join(member.team, team).fetchJoin()
+			.setHint(QueryHints.HINT_READONLY, readOnlyHint)
+			.fetch();
+	}
+}
@@ -0,0 +1,82 @@
+package study.querydsl.benchmark;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.entity.Member;
+
+/**
+ * 영속성 컨텍스트에 회원 N명(+ 팀)이 있을 때 flush 시간. 1%만 수정한다.
+ * 스냅샷 비교는 관리 중인 엔티티 수 x 필드 수에 비례하고, inline dirty tracking은 수정된 엔티티만 본다.
+ * 로딩/수정은 @Setup(Level.Invocation)에서 하고 flush만 측정한다. 매번 롤백하므로 데이터는 바뀌지 않는다.
+ * enhancement 전후 비교: -PnoEnhance로 한 번 더 실행한다.
+ * 실행: ./gradlew jmh -PjmhIncludes=FlushBenchmark [-PnoEnhance] [-PjmhMembers=10000,50000,100000]
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FlushBenchmark {
+
+	private static final int TEAMS = 100;
+	private static final int MODIFY_EVERY = 100;
+
+	@Param({"10000", "100000"})
+	int members;
+
+	ConfigurableApplicationContext context;
+	EntityManagerFactory emf;
+	EntityManager em;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start();
+		BenchmarkContext.seed(context, members, TEAMS);
+		emf = context.getBean(EntityManagerFactory.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Setup(Level.Invocation)
+	public void load() {
+		em = emf.createEntityManager();
+		em.getTransaction().begin();
+		List<Member> result = new JPAQueryFactory(em)
+			.selectFrom(member)
+			.join(member.team, team).fetchJoin()
+			.fetch();
+		for (int i = 0; i < result.size(); i += MODIFY_EVERY) {
+			Member m = result.get(i);
+			m.setAge(m.getAge() + 1);
+		}
+	}
+
+	@TearDown(Level.Invocation)
+	public void rollback() {
+		em.getTransaction().rollback();
+		em.close();
+	}
+
+	@Benchmark
+	public void flush() {
+		em.flush();
+	}
+}
@@ -0,0 +1,78 @@
+package study.querydsl.benchmark;
+
+import static study.querydsl.entity.QMember.member;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.service.MemberAgeIndex;
+import study.querydsl.support.BenchmarkSupport;
+
+/**
+ * 팀 + 나이 범위 회원 id 조회: 메모리 인덱스(MemberAgeIndex) vs Querydsl
+ * 실행: ./gradlew jmh -PjmhIncludes=MemberAgeIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberAgeIndexBenchmark {
+
+	private static final int TEAMS = 100;
+
+	@Param({"100000"})
+	int members;
+
+	// 팀 하나에 members / TEAMS 명, 나이는 0~99 이므로 범위 폭에 비례해서 결과가 늘어난다
+	@Param({"20", "30"})
+	int minAge;
+
+	ConfigurableApplicationContext context;
+	JPAQueryFactory queryFactory;
+	MemberAgeIndex memberAgeIndex;
+	TransactionTemplate readOnly;
+	long teamId;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start("--querydsl.member-index.enabled=true");
+		BenchmarkContext.seed(context, members, TEAMS);
+		queryFactory = context.getBean(JPAQueryFactory.class);
+		memberAgeIndex = context.getBean(MemberAgeIndex.class);
+		memberAgeIndex.rebuild(); // seed는 네이티브 insert라 이벤트가 없다
+		readOnly = new TransactionTemplate(context.getBean(TransactionTemplate.class).getTransactionManager());
+		readOnly.setReadOnly(true);
+		teamId = BenchmarkSupport.ID_BASE + TEAMS / 2;
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public long[] index() {
+		return memberAgeIndex.findMemberIds(teamId, minAge, 39);
+	}
+
+	@Benchmark
+	public List<Long> querydsl() {
+		return readOnly.execute(status -> queryFactory
+			.select(member.Id)
+			.from(member)
+			.where(member.team.Id.eq(teamId), member.age.between(minAge, 39))
+			.orderBy(member.age.asc(), member.Id.asc())
+			.fetch());
+	}
+}
@@ -0,0 +1,121 @@
+package study.querydsl.benchmark;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.QMemberDto;
+import study.querydsl.repository.MemberQueryRepository;
+
+/**
+ * 동적 검색(팀 조건이 있을 때만 조인) vs 항상 team을 조인하는 검색
+ * 시작할 때 두 SQL의 H2 실행 계획(EXPLAIN)을 출력한다.
+ * 실행: ./gradlew jmh -PjmhIncludes=MemberSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberSearchBenchmark {
+
+	private static final int TEAMS = 100;
+
+	@Param({"100000"})
+	int members;
+
+	ConfigurableApplicationContext context;
+	JPAQueryFactory queryFactory;
+	MemberQueryRepository memberQueryRepository;
+	TransactionTemplate readOnly;
+	MemberSearchCondition byUsername;
+	MemberSearchCondition byAgeRange;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start();
+		BenchmarkContext.seed(context, members, TEAMS);
+		queryFactory = context.getBean(JPAQueryFactory.class);
+		memberQueryRepository = context.getBean(MemberQueryRepository.class);
+		readOnly = new TransactionTemplate(context.getBean(TransactionTemplate.class).getTransactionManager());
+		readOnly.setReadOnly(true);
+
+		byUsername = new MemberSearchCondition();
+		byUsername.setUsername("member00000042");
+		byAgeRange = new MemberSearchCondition();
+		byAgeRange.setAgeGoe(30);
+		byAgeRange.setAgeLoe(30);
+
+		printPlans();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<MemberDto> usernameConditional() {
+		return readOnly.execute(status -> memberQueryRepository.search(byUsername));
+	}
+
+	@Benchmark
+	public List<MemberDto> usernameAlwaysJoin() {
+		return readOnly.execute(status -> alwaysJoin(byUsername));
+	}
+
+	@Benchmark
+	public List<MemberDto> ageRangeConditional() {
+		return readOnly.execute(status -> memberQueryRepository.search(byAgeRange));
+	}
+
+	@Benchmark
+	public List<MemberDto> ageRangeAlwaysJoin() {
+		return readOnly.execute(status -> alwaysJoin(byAgeRange));
+	}
+
+	// 비교 대상: 조건과 관계없이 항상 team을 left join
+	private List<MemberDto> alwaysJoin(MemberSearchCondition condition) {
+		return queryFactory
+			.select(new QMemberDto(member.Id, member.username, member.age, team.Id))
+			.from(member)
+			.leftJoin(member.team, team)
+			.where(
+				condition.getUsername() == null ? null : member.username.eq(condition.getUsername()),
+				condition.getAgeGoe() == null ? null : member.age.goe(condition.getAgeGoe()),
+				condition.getAgeLoe() == null ? null : member.age.loe(condition.getAgeLoe()))
+			.orderBy(member.Id.asc())
+			.fetch();
+	}
+
+	private void printPlans() {
+		EntityManager em = context.getBean(EntityManager.class);
+		String[] queries = {
+			"select m.member_id, m.username, m.age, m.team_id from member m " +
+				"where m.age between 30 and 30 order by m.member_id",
+			"select m.member_id, m.username, m.age, t.id from member m left join team t on m.team_id = t.id " +
+				"where m.age >= 30 and m.age <= 30 order by m.member_id"
+		};
+		readOnly.executeWithoutResult(status -> {
+			for (String sql : queries) {
+				System.out.println("EXPLAIN " + sql);
+				System.out.println(em.createNativeQuery("explain " + sql).getSingleResult());
+			}
+		});
+	}
+}
@@ -0,0 +1,80 @@
+package study.querydsl.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.AgeStats;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberSqlRepository;
+import study.querydsl.service.MemberReadService;
+import study.querydsl.service.TeamAgeReportService;
+
+/**
+ * JPAQueryFactory vs SQLQueryFactory (Querydsl SQL): 같은 join DTO 조회와 group by 리포트
+ * 할당량은 gc 프로파일러로 본다. (gc.alloc.rate.norm = 호출당 할당 바이트)
+ * 실행: ./gradlew jmh -PjmhIncludes=MemberSqlBenchmark -PjmhProfilers=gc [-PjmhMembers=10000,100000]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MemberSqlBenchmark {
+
+	private static final int TEAMS = 100;
+
+	@Param({"10000"})
+	int members;
+
+	ConfigurableApplicationContext context;
+	MemberReadService memberReadService;
+	TeamAgeReportService teamAgeReportService;
+	MemberSqlRepository memberSqlRepository;
+	TransactionTemplate readOnly;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start();
+		BenchmarkContext.seed(context, members, TEAMS);
+		memberReadService = context.getBean(MemberReadService.class);
+		teamAgeReportService = context.getBean(TeamAgeReportService.class);
+		memberSqlRepository = context.getBean(MemberSqlRepository.class);
+		readOnly = new TransactionTemplate(context.getBean(TransactionTemplate.class).getTransactionManager());
+		readOnly.setReadOnly(true);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<MemberTeamDto> joinJpa() {
+		return memberReadService.findMemberTeams(); // @Transactional(readOnly = true)
+	}
+
+	@Benchmark
+	public List<MemberTeamDto> joinSql() {
+		return readOnly.execute(status -> memberSqlRepository.findMemberTeams());
+	}
+
+	@Benchmark
+	public Map<String, AgeStats> groupByJpa() {
+		return teamAgeReportService.groupByTeamName();
+	}
+
+	@Benchmark
+	public Map<String, AgeStats> groupBySql() {
+		return readOnly.execute(status -> memberSqlRepository.groupByTeamName());
+	}
+}
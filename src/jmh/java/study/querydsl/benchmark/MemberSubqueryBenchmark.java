@@ -0,0 +1,86 @@
+package study.querydsl.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.repository.MemberSubqueryRepository;
+
+/**
+ * JPAExpressions 서브쿼리 vs 2단계 조회 vs 윈도 함수/파생 테이블 (MemberSubqueryRepository)
+ * 상관 서브쿼리(aboveTeamAvgSubquery)는 회원 수가 많으면 매우 느리다. 먼저 -PjmhMembers=100000으로 확인하자.
+ * 실행: ./gradlew jmh -PjmhIncludes=MemberSubqueryBenchmark [-PjmhMembers=1000000]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MemberSubqueryBenchmark {
+
+	private static final int TEAMS = 100;
+
+	@Param({"1000000"})
+	int members;
+
+	ConfigurableApplicationContext context;
+	MemberSubqueryRepository repository;
+	TransactionTemplate readOnly;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start();
+		BenchmarkContext.seed(context, members, TEAMS);
+		repository = context.getBean(MemberSubqueryRepository.class);
+		readOnly = new TransactionTemplate(context.getBean(TransactionTemplate.class).getTransactionManager());
+		readOnly.setReadOnly(true);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<Long> maxAgeSubquery() {
+		return readOnly.execute(status -> repository.findIdsWithMaxAgeSubquery());
+	}
+
+	@Benchmark
+	public List<Long> maxAgeTwoStep() {
+		return readOnly.execute(status -> repository.findIdsWithMaxAgeTwoStep());
+	}
+
+	@Benchmark
+	public List<Long> maxAgeWindow() {
+		return readOnly.execute(status -> repository.findIdsWithMaxAgeWindow());
+	}
+
+	@Benchmark
+	public List<Long> aboveTeamAvgSubquery() {
+		return readOnly.execute(status -> repository.findIdsAboveTeamAvgSubquery());
+	}
+
+	@Benchmark
+	public List<Long> aboveTeamAvgTwoStep() {
+		return readOnly.execute(status -> repository.findIdsAboveTeamAvgTwoStep());
+	}
+
+	@Benchmark
+	public List<Long> aboveTeamAvgWindow() {
+		return readOnly.execute(status -> repository.findIdsAboveTeamAvgWindow());
+	}
+
+	@Benchmark
+	public List<Long> aboveTeamAvgDerivedTable() {
+		return readOnly.execute(status -> repository.findIdsAboveTeamAvgDerivedTable());
+	}
+}
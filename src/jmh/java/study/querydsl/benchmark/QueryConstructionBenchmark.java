@@ -0,0 +1,98 @@
+package study.querydsl.benchmark;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.HQLTemplates;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.entity.Member;
+
+/**
+ * 쿼리 실행 전 단계의 비용: JPAQueryFactory 생성, Q타입 조건 조립, JPQL 직렬화
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class QueryConstructionBenchmark {
+
+	ConfigurableApplicationContext context;
+	EntityManager em;
+	JPAQueryFactory queryFactory;
+	JPAQuery<Member> searchQuery;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start();
+		// 트랜잭션 밖에서도 쓸 수 있도록 공유 프록시 대신 EntityManager를 직접 만든다
+		em = context.getBean(EntityManagerFactory.class).createEntityManager();
+		queryFactory = new JPAQueryFactory(em);
+		searchQuery = search(queryFactory);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		em.close();
+		context.close();
+	}
+
+	@Benchmark
+	public JPAQueryFactory createQueryFactory() {
+		return new JPAQueryFactory(em);
+	}
+
+	@Benchmark
+	public JPAQueryFactory createQueryFactoryWithTemplates() {
+		return new JPAQueryFactory(HQLTemplates.DEFAULT, em); // 매 쿼리마다 JPAProvider 조회를 하지 않는다
+	}
+
+	@Benchmark
+	public BooleanExpression buildPredicate() {
+		return member.username.eq("member1")
+			.and(member.age.between(10, 30))
+			.and(team.name.eq("teamA"));
+	}
+
+	@Benchmark
+	public JPAQuery<Member> buildQuery() {
+		return search(queryFactory);
+	}
+
+	@Benchmark
+	public String serializeJpql() {
+		JPQLSerializer serializer = new JPQLSerializer(HQLTemplates.DEFAULT, em);
+		serializer.serialize(searchQuery.getMetadata(), false, null);
+		return serializer.toString();
+	}
+
+	@Benchmark
+	public String buildAndSerialize() {
+		JPAQuery<Member> query = search(queryFactory);
+		JPQLSerializer serializer = new JPQLSerializer(HQLTemplates.DEFAULT, em);
+		serializer.serialize(query.getMetadata(), false, null);
+		return serializer.toString();
+	}
+
+	private static JPAQuery<Member> search(JPAQueryFactory queryFactory) {
+		return queryFactory
+			.selectFrom(member)
+			.join(member.team, team)
+			.where(member.username.eq("member1"), member.age.between(10, 30), team.name.eq("teamA"))
+			.orderBy(member.Id.asc());
+	}
+}
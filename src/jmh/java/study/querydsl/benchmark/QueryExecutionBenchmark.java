@@ -0,0 +1,111 @@
+package study.querydsl.benchmark;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.KeysetSlice;
+import study.querydsl.repository.MemberQueryRepository;
+
+/**
+ * QuerydslBasicTest의 주요 쿼리(search, paging, group, join)를 임베디드 H2에서 실행한다.
+ * 데이터 크기는 members 파라미터(-PjmhMembers=...)로 바꾼다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QueryExecutionBenchmark {
+
+	private static final int TEAMS = 100;
+	private static final int PAGE_SIZE = 20;
+
+	@Param({"1000", "100000"})
+	int members;
+
+	ConfigurableApplicationContext context;
+	JPAQueryFactory queryFactory;
+	MemberQueryRepository memberQueryRepository;
+	TransactionTemplate readOnly;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start();
+		BenchmarkContext.seed(context, members, TEAMS);
+		queryFactory = context.getBean(JPAQueryFactory.class);
+		memberQueryRepository = context.getBean(MemberQueryRepository.class);
+		readOnly = new TransactionTemplate(context.getBean(TransactionTemplate.class).getTransactionManager());
+		readOnly.setReadOnly(true);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Member search() {
+		String username = String.format("member%08d", randomMember());
+		return readOnly.execute(status -> queryFactory
+			.selectFrom(member)
+			.where(member.username.eq(username), member.age.goe(0))
+			.fetchOne());
+	}
+
+	@Benchmark
+	public List<Member> offsetPaging() {
+		long offset = ThreadLocalRandom.current().nextLong(Math.max(1, members - PAGE_SIZE));
+		return readOnly.execute(status -> queryFactory
+			.selectFrom(member)
+			.orderBy(member.age.asc(), member.Id.asc())
+			.offset(offset)
+			.limit(PAGE_SIZE)
+			.fetch());
+	}
+
+	@Benchmark
+	public KeysetSlice<Member> keysetPaging() {
+		return readOnly.execute(status -> memberQueryRepository.findPageOrderByAge(null, PAGE_SIZE));
+	}
+
+	@Benchmark
+	public List<Tuple> group() {
+		return readOnly.execute(status -> queryFactory
+			.select(team.name, member.age.avg())
+			.from(member)
+			.join(member.team, team)
+			.groupBy(team.name)
+			.fetch());
+	}
+
+	@Benchmark
+	public List<Member> join() {
+		String teamName = "team" + (1 + ThreadLocalRandom.current().nextInt(TEAMS));
+		return readOnly.execute(status -> queryFactory
+			.selectFrom(member)
+			.join(member.team, team)
+			.where(team.name.eq(teamName))
+			.limit(PAGE_SIZE)
+			.fetch());
+	}
+
+	private int randomMember() {
+		return 1 + ThreadLocalRandom.current().nextInt(members);
+	}
+}
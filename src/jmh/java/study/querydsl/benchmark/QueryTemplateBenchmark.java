@@ -0,0 +1,122 @@
+package study.querydsl.benchmark;
+
+import static study.querydsl.entity.QMember.member;
+
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberQueryRepository;
+import study.querydsl.support.QueryTemplate;
+import study.querydsl.support.QueryTemplateCache;
+
+/**
+ * search / searchAndParam 모양의 쿼리를 매번 만들고 직렬화하는 경우와 QueryTemplate으로 바인딩만 하는 경우 비교
+ * - prepare*: javax.persistence.Query 생성까지만 (요청당 CPU 비용)
+ * - execute*: 실제 실행까지
+ * 실행: ./gradlew jmh -PjmhIncludes=QueryTemplateBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QueryTemplateBenchmark {
+
+	private static final int MEMBERS = 10_000;
+	private static final Param<String> USERNAME = new Param<>(String.class, "username");
+	private static final Param<Integer> AGE = new Param<>(Integer.class, "age");
+
+	ConfigurableApplicationContext context;
+	EntityManager em;
+	JPAQueryFactory queryFactory;
+	QueryTemplate<Member> searchTemplate;
+	QueryTemplate<Member> searchAndParamTemplate;
+	MemberQueryRepository memberQueryRepository;
+	TransactionTemplate readOnly;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start();
+		BenchmarkContext.seed(context, MEMBERS, 10);
+		em = context.getBean(EntityManager.class);
+		queryFactory = context.getBean(JPAQueryFactory.class);
+		QueryTemplateCache cache = context.getBean(QueryTemplateCache.class);
+		searchTemplate = cache.get("benchmark.search", () -> queryFactory
+			.selectFrom(member)
+			.where(member.username.eq(USERNAME).and(member.age.eq(AGE))));
+		searchAndParamTemplate = cache.get("benchmark.searchAndParam", () -> queryFactory
+			.selectFrom(member)
+			.where(member.username.eq(USERNAME), member.age.eq(AGE)));
+		memberQueryRepository = context.getBean(MemberQueryRepository.class);
+		readOnly = new TransactionTemplate(context.getBean(TransactionTemplate.class).getTransactionManager());
+		readOnly.setReadOnly(true);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Query prepareSearchRebuilt() {
+		return readOnly.execute(status -> queryFactory
+			.selectFrom(member)
+			.where(member.username.eq(username()).and(member.age.eq(10)))
+			.createQuery());
+	}
+
+	@Benchmark
+	public Query prepareSearchTemplate() {
+		return readOnly.execute(status -> searchTemplate.bind(USERNAME, username()).bind(AGE, 10).createQuery());
+	}
+
+	@Benchmark
+	public Query prepareSearchAndParamRebuilt() {
+		return readOnly.execute(status -> queryFactory
+			.selectFrom(member)
+			.where(member.username.eq(username()), member.age.eq(10))
+			.createQuery());
+	}
+
+	@Benchmark
+	public Query prepareSearchAndParamTemplate() {
+		return readOnly.execute(status -> searchAndParamTemplate.bind(USERNAME, username()).bind(AGE, 10).createQuery());
+	}
+
+	@Benchmark
+	public Member executeSearchRebuilt() {
+		String username = username();
+		return readOnly.execute(status -> queryFactory
+			.selectFrom(member)
+			.where(member.username.eq(username).and(member.age.eq(ageOf(username))))
+			.fetchOne());
+	}
+
+	@Benchmark
+	public Member executeSearchTemplate() {
+		String username = username();
+		return readOnly.execute(status -> memberQueryRepository.findByUsernameAndAge(username, ageOf(username)));
+	}
+
+	private static String username() {
+		return String.format("member%08d", 1 + ThreadLocalRandom.current().nextInt(MEMBERS));
+	}
+
+	// BenchmarkContext.seed()의 age = mod(x, 100)
+	private static int ageOf(String username) {
+		return Integer.parseInt(username.substring("member".length())) % 100;
+	}
+}
@@ -0,0 +1,36 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.querydsl.support.JpaExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+	/**
+	 * 비동기 조회 API가 사용하는 JPA 전용 executor
+	 * 실행 수는 커넥션 풀 크기에 맞춘다. 더 많이 실행해도 커넥션을 기다리는 스레드만 늘어난다.
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public JpaExecutor jpaExecutor(
+		@Value("${querydsl.async.pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int poolSize,
+		@Value("${querydsl.async.queue-capacity:200}") int queueCapacity,
+		@Value("${querydsl.async.virtual-threads:false}") boolean virtualThreads) {
+		return new JpaExecutor(poolSize, queueCapacity, virtualThreads);
+	}
+
+	@Bean
+	public MeterBinder jpaExecutorMetrics(JpaExecutor jpaExecutor) {
+		return registry -> {
+			Gauge.builder("querydsl.async.in-flight", jpaExecutor, JpaExecutor::getInFlight)
+				.tag("virtual", String.valueOf(jpaExecutor.isVirtualThreads()))
+				.register(registry);
+			FunctionCounter.builder("querydsl.async.rejected", jpaExecutor, JpaExecutor::getRejected)
+				.register(registry);
+		};
+	}
+}
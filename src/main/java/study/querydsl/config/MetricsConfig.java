@@ -0,0 +1,62 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.function.ToLongFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.querydsl.repository.QuerydslPaging;
+import study.querydsl.support.SqlStatementCounter;
+import study.querydsl.support.TeamCacheManager;
+import study.querydsl.support.TeamCacheManager.RegionStats;
+
+/**
+ * 기존에 직접 모으던 카운터를 Micrometer 메트릭으로 노출한다 (/actuator/prometheus)
+ * 값은 스크랩할 때마다 원본 카운터에서 읽는다.
+ */
+@Configuration
+public class MetricsConfig {
+
+	@Bean
+	public MeterBinder querydslPagingMetrics(QuerydslPaging paging) {
+		return registry -> {
+			FunctionCounter.builder("querydsl.paging.count.queries", paging, QuerydslPaging::getCountQueriesExecuted)
+				.tag("result", "executed")
+				.register(registry);
+			FunctionCounter.builder("querydsl.paging.count.queries", paging, QuerydslPaging::getCountQueriesSkipped)
+				.tag("result", "skipped")
+				.register(registry);
+		};
+	}
+
+	@Bean
+	public MeterBinder sqlStatementMetrics(SqlStatementCounter counter) {
+		return registry -> FunctionCounter.builder("jdbc.statements", counter, SqlStatementCounter::getTotal)
+			.register(registry);
+	}
+
+	/**
+	 * 영역 이름은 고정이므로 바인딩할 때 통계를 조회하지 않는다.
+	 * 통계를 조회하면 EntityManagerFactory가 필요해서 faststart의 백그라운드 생성을 기동 중에 기다리게 된다.
+	 */
+	@Bean
+	public MeterBinder teamCacheMetrics(TeamCacheManager cacheManager) {
+		return registry -> {
+			for (String region : TeamCacheManager.REGIONS) {
+				register(registry, cacheManager, region, "hit", RegionStats::getHits);
+				register(registry, cacheManager, region, "miss", RegionStats::getMisses);
+				register(registry, cacheManager, region, "put", RegionStats::getPuts);
+				register(registry, cacheManager, region, "eviction", RegionStats::getEvictions);
+			}
+		};
+	}
+
+	private void register(MeterRegistry registry, TeamCacheManager cacheManager,
+		String region, String result, ToLongFunction<RegionStats> value) {
+		FunctionCounter.builder("querydsl.cache.region", cacheManager,
+				m -> value.applyAsLong(m.getStats(region)))
+			.tags("region", region, "result", result)
+			.register(registry);
+	}
+}
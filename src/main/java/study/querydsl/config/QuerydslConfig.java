@@ -0,0 +1,23 @@
+package study.querydsl.config;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.querydsl.support.MeteredJPAQueryFactory;
+import study.querydsl.support.QueryMetrics;
+
+@Configuration
+public class QuerydslConfig {
+
+	// 스프링이 주입하는 EntityManager는 트랜잭션 단위로 바인딩되는 프록시이므로 싱글톤 빈에서 공유해도 안전하다
+	@PersistenceContext
+	private EntityManager em;
+
+	// 조회 쿼리의 실행 시간/row 수/SQL 수를 Micrometer로 기록한다
+	@Bean
+	public JPAQueryFactory jpaQueryFactory(QueryMetrics queryMetrics) {
+		return new MeteredJPAQueryFactory(em, queryMetrics);
+	}
+}
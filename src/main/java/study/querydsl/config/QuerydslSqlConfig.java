@@ -0,0 +1,25 @@
+package study.querydsl.config;
+
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.spring.SpringConnectionProvider;
+import com.querydsl.sql.spring.SpringExceptionTranslator;
+import javax.sql.DataSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class QuerydslSqlConfig {
+
+	/**
+	 * 리포트/export용 Querydsl SQL. HQL 변환과 엔티티 처리 없이 SQL 결과를 바로 DTO로 만든다.
+	 * SpringConnectionProvider는 현재 트랜잭션(JpaTransactionManager)의 커넥션을 사용하므로 트랜잭션 안에서만 쓸 수 있다.
+	 * 템플릿은 사용하는 DB에 맞춘다. (현재 H2)
+	 */
+	@Bean
+	public SQLQueryFactory sqlQueryFactory(DataSource dataSource) {
+		com.querydsl.sql.Configuration configuration = new com.querydsl.sql.Configuration(H2Templates.builder().build());
+		configuration.setExceptionTranslator(new SpringExceptionTranslator());
+		return new SQLQueryFactory(configuration, new SpringConnectionProvider(dataSource));
+	}
+}
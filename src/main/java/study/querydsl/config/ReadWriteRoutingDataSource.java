@@ -0,0 +1,51 @@
+package study.querydsl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.util.Map;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * readOnly 트랜잭션은 read 풀로, 나머지는 write 풀로 보내는 DataSource
+ * JpaTransactionManager는 트랜잭션 시작 시점(readOnly 표시 전)에 커넥션을 얻으므로
+ * LazyConnectionDataSourceProxy로 감싸서 첫 SQL을 실행할 때 풀을 결정한다.
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+	private final HikariDataSource write;
+	private final HikariDataSource read;
+
+	public ReadWriteRoutingDataSource(HikariDataSource write, HikariDataSource read) {
+		this.write = write;
+		this.read = read;
+
+		AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+			@Override
+			protected Object determineCurrentLookupKey() {
+				return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.READ : Route.WRITE;
+			}
+		};
+		routing.setTargetDataSources(Map.of(Route.WRITE, write, Route.READ, read));
+		routing.setDefaultTargetDataSource(write);
+		routing.afterPropertiesSet();
+
+		setTargetDataSource(routing);
+		// 기본값을 지정해 두면 초기화할 때 커넥션을 열어서 확인하지 않는다
+		setDefaultAutoCommit(write.isAutoCommit());
+		setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+		afterPropertiesSet();
+	}
+
+	@Override
+	public void close() {
+		read.close();
+		write.close();
+	}
+
+	enum Route {
+		WRITE, READ
+	}
+}
@@ -0,0 +1,53 @@
+package study.querydsl.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * querydsl.datasource.routing.enabled=true 일 때 spring.datasource 대신 write/read 두 개의 Hikari 풀을 사용한다
+ * - @Transactional(readOnly = true): read 풀 (복제본)
+ * - 그 외, 트랜잭션 밖: write 풀 (주 DB)
+ * 풀 설정은 querydsl.datasource.routing.write / read 아래에 HikariConfig 속성 이름으로 지정한다.
+ * 풀은 빈으로 등록하지 않는다. (DataSource 빈이 하나여야 p6spy가 한 번만 감싸고 JPA 자동 설정도 그대로 동작한다)
+ * 커넥션 대기 시간은 풀 별로 hikaricp.connections.acquire / hikaricp.connections.pending 메트릭으로 확인한다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "querydsl.datasource.routing", name = "enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+	@Bean
+	@ConfigurationProperties("querydsl.datasource.routing.write")
+	public HikariConfig writeDataSourceConfig() {
+		HikariConfig config = new HikariConfig();
+		config.setPoolName("querydsl-write");
+		return config;
+	}
+
+	@Bean
+	@ConfigurationProperties("querydsl.datasource.routing.read")
+	public HikariConfig readDataSourceConfig() {
+		HikariConfig config = new HikariConfig();
+		config.setPoolName("querydsl-read");
+		return config;
+	}
+
+	@Bean
+	public DataSource dataSource(ObjectProvider<MeterRegistry> meterRegistry) {
+		return new ReadWriteRoutingDataSource(
+			pool(writeDataSourceConfig(), meterRegistry),
+			pool(readDataSourceConfig(), meterRegistry));
+	}
+
+	private HikariDataSource pool(HikariConfig config, ObjectProvider<MeterRegistry> meterRegistry) {
+		meterRegistry.ifAvailable(registry -> config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+		return new HikariDataSource(config);
+	}
+}
@@ -0,0 +1,35 @@
+package study.querydsl.config;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.ReflectionUtils;
+
+@Configuration
+public class StartupConfig {
+
+	/**
+	 * spring.main.lazy-initialization=true 이어도 바로 만드는 빈
+	 * - @Scheduled: 빈이 만들어질 때 스케줄이 등록되므로 지연되면 실행되지 않는다
+	 * - @TransactionalEventListener: 첫 변경 이벤트의 커밋 처리 도중에 빈이 만들어지지 않도록 한다
+	 */
+	@Bean
+	public static LazyInitializationExcludeFilter eagerEventAndScheduledBeans() {
+		return (beanName, beanDefinition, beanType) ->
+			hasAnnotatedMethod(beanType, Scheduled.class) || hasAnnotatedMethod(beanType, TransactionalEventListener.class);
+	}
+
+	private static boolean hasAnnotatedMethod(Class<?> type, Class<? extends Annotation> annotation) {
+		for (Method method : ReflectionUtils.getUniqueDeclaredMethods(type)) {
+			if (AnnotatedElementUtils.hasAnnotation(method, annotation)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
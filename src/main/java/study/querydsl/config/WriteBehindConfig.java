@@ -0,0 +1,35 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import study.querydsl.service.MemberWriteBehindService;
+
+/**
+ * MemberWriteBehindService의 주기적 flush(@Scheduled)와 메트릭
+ * querydsl.write-behind.updates - (querydsl.write-behind.statements + querydsl.write-behind.readbacks) 가 절약한 SQL 문 수다.
+ * readbacks는 변경 이벤트를 만들기 위해 flush마다 다시 읽는 select 수다.
+ */
+@Configuration
+@EnableScheduling
+public class WriteBehindConfig {
+
+	@Bean
+	public MeterBinder writeBehindMetrics(MemberWriteBehindService writeBehind) {
+		return registry -> {
+			Gauge.builder("querydsl.write-behind.pending", writeBehind, MemberWriteBehindService::getPending)
+				.register(registry);
+			FunctionCounter.builder("querydsl.write-behind.updates", writeBehind, MemberWriteBehindService::getUpdates)
+				.register(registry);
+			FunctionCounter.builder("querydsl.write-behind.flushed", writeBehind, MemberWriteBehindService::getFlushedMembers)
+				.register(registry);
+			FunctionCounter.builder("querydsl.write-behind.statements", writeBehind, MemberWriteBehindService::getStatements)
+				.register(registry);
+			FunctionCounter.builder("querydsl.write-behind.readbacks", writeBehind, MemberWriteBehindService::getReadbacks)
+				.register(registry);
+		};
+	}
+}
@@ -0,0 +1,23 @@
+package study.querydsl.controller;
+
+import java.util.Map;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.support.TeamCacheManager;
+import study.querydsl.support.TeamCacheManager.RegionStats;
+
+@RestController
+public class CacheStatsController {
+
+	private final TeamCacheManager teamCacheManager;
+
+	public CacheStatsController(TeamCacheManager teamCacheManager) {
+		this.teamCacheManager = teamCacheManager;
+	}
+
+	// 캐시 크기 조정을 위한 영역별 hit/miss/put/eviction 수
+	@GetMapping("/cache/stats")
+	public Map<String, RegionStats> stats() {
+		return teamCacheManager.getStats();
+	}
+}
@@ -0,0 +1,72 @@
+package study.querydsl.controller;
+
+import static org.springframework.util.StringUtils.hasText;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.service.MemberApiService;
+import study.querydsl.support.TableVersionTracker;
+import study.querydsl.support.TableVersionTracker.Table;
+
+/**
+ * 회원 목록 조회 API
+ * ETag는 결과에 영향을 주는 테이블의 변경 버전(TableVersionTracker)으로 만든다.
+ * If-None-Match가 같으면 쿼리를 실행하지 않고 304로 응답한다.
+ * 정렬은 member id 오름차순 고정이다. (sort 파라미터는 사용하지 않음)
+ */
+@RestController
+public class MemberApiController {
+
+	private final MemberApiService memberApiService;
+	private final TableVersionTracker tableVersions;
+
+	public MemberApiController(MemberApiService memberApiService, TableVersionTracker tableVersions) {
+		this.memberApiService = memberApiService;
+		this.tableVersions = tableVersions;
+	}
+
+	// 예) /api/members?teamName=teamA&ageGoe=20&page=0&size=20
+	@GetMapping("/api/members")
+	public ResponseEntity<StreamingResponseBody> search(MemberSearchCondition condition, Pageable pageable,
+		WebRequest request) {
+		// 팀 이름 조건이 있을 때만 팀 변경(이름 변경 등)이 결과에 영향을 준다
+		String etag = hasText(condition.getTeamName())
+			? tableVersions.etag(Table.MEMBER, Table.TEAM)
+			: tableVersions.etag(Table.MEMBER);
+		if (request.checkNotModified(etag)) {
+			return null; // 304
+		}
+		return ok(out -> memberApiService.writeSearch(condition, pageable, out));
+	}
+
+	// 예) /api/teams/1/members?page=0&size=20
+	@GetMapping("/api/teams/{teamId}/members")
+	public ResponseEntity<StreamingResponseBody> teamMembers(@PathVariable Long teamId, Pageable pageable,
+		WebRequest request) {
+		// 팀 삭제 시 404가 되어야 하므로 팀 버전도 포함한다
+		String etag = tableVersions.etag(Table.MEMBER, Table.TEAM);
+		if (request.checkNotModified(etag)) {
+			return null; // 304
+		}
+		if (!memberApiService.teamExists(teamId)) {
+			return ResponseEntity.notFound().build();
+		}
+		return ok(out -> memberApiService.writeTeamMembers(teamId, pageable, out));
+	}
+
+	// ETag 헤더는 checkNotModified()가 이미 설정했다. 여기서 다시 넣으면 헤더가 두 번 나간다
+	private static ResponseEntity<StreamingResponseBody> ok(StreamingResponseBody body) {
+		return ResponseEntity.ok()
+			.cacheControl(CacheControl.noCache()) // 저장은 하되 쓸 때마다 ETag로 확인한다
+			.contentType(MediaType.APPLICATION_JSON)
+			.body(body);
+	}
+}
@@ -0,0 +1,50 @@
+package study.querydsl.controller;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.service.MemberAsyncQueryService;
+
+/**
+ * 조회는 JpaExecutor에서 실행되고 요청 스레드(Tomcat)는 바로 반환된다.
+ * executor가 가득 찼거나 timeout이 지나면 503으로 응답한다.
+ */
+@RestController
+public class MemberAsyncController {
+
+	private final MemberAsyncQueryService memberAsyncQueryService;
+
+	public MemberAsyncController(MemberAsyncQueryService memberAsyncQueryService) {
+		this.memberAsyncQueryService = memberAsyncQueryService;
+	}
+
+	// 예) /async/members?teamName=teamA&ageGoe=20
+	@GetMapping("/async/members")
+	public CompletableFuture<List<MemberDto>> search(MemberSearchCondition condition) {
+		return memberAsyncQueryService.search(condition);
+	}
+
+	// 예) /async/members/page?username=member1&page=0&size=20
+	@GetMapping("/async/members/page")
+	public CompletableFuture<Page<MemberDto>> searchPage(MemberSearchCondition condition, Pageable pageable) {
+		return memberAsyncQueryService.search(condition, pageable);
+	}
+
+	@ExceptionHandler({RejectedExecutionException.class, TimeoutException.class})
+	public ResponseEntity<String> unavailable(Exception e) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+			.header(HttpHeaders.RETRY_AFTER, "1")
+			.body(e instanceof TimeoutException ? "query timed out" : "too many concurrent queries");
+	}
+}
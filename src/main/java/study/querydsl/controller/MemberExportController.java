@@ -0,0 +1,40 @@
+package study.querydsl.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.querydsl.service.MemberExportService;
+
+@RestController
+public class MemberExportController {
+
+	private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+	private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+	private final MemberExportService memberExportService;
+
+	public MemberExportController(MemberExportService memberExportService) {
+		this.memberExportService = memberExportService;
+	}
+
+	// 응답 body를 리스트로 만들지 않고 조회하면서 바로 응답 스트림에 쓴다
+	@GetMapping("/members/export.ndjson")
+	public ResponseEntity<StreamingResponseBody> exportNdjson() {
+		StreamingResponseBody body = memberExportService::exportNdjson;
+		return ResponseEntity.ok()
+			.contentType(NDJSON)
+			.body(body);
+	}
+
+	@GetMapping("/members/export.csv")
+	public ResponseEntity<StreamingResponseBody> exportCsv() {
+		StreamingResponseBody body = memberExportService::exportCsv;
+		return ResponseEntity.ok()
+			.contentType(CSV)
+			.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"members.csv\"")
+			.body(body);
+	}
+}
@@ -0,0 +1,44 @@
+package study.querydsl.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 회원 나이 집계 값 (count/sum/avg/max/min)
+ * 회원이 없으면 count = 0이고 min/max/avg는 null이다.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class AgeStats {
+
+	public static final AgeStats EMPTY = new AgeStats(0, 0, null, null);
+
+	private final long count;
+	private final long sum;
+	private final Integer min;
+	private final Integer max;
+
+	public AgeStats(long count, long sum, Integer min, Integer max) {
+		this.count = count;
+		this.sum = sum;
+		this.min = min;
+		this.max = max;
+	}
+
+	// 나눠서 집계한 결과를 합친다. avg는 합친 sum/count로 계산된다
+	public AgeStats merge(AgeStats other) {
+		if (other.count == 0) {
+			return this;
+		}
+		if (count == 0) {
+			return other;
+		}
+		return new AgeStats(count + other.count, sum + other.sum, Math.min(min, other.min), Math.max(max, other.max));
+	}
+
+	public Double getAvg() {
+		return count == 0 ? null : (double) sum / count;
+	}
+}
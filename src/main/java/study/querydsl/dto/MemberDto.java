@@ -0,0 +1,27 @@
+package study.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 회원 검색 결과 DTO
+ * teamId는 member.team_id 컬럼에서 바로 읽으므로 team 조인이 필요 없다.
+ */
+@Getter
+@ToString
+public class MemberDto {
+
+	private final Long memberId;
+	private final String username;
+	private final int age;
+	private final Long teamId;
+
+	@QueryProjection
+	public MemberDto(Long memberId, String username, int age, Long teamId) {
+		this.memberId = memberId;
+		this.username = username;
+		this.age = age;
+		this.teamId = teamId;
+	}
+}
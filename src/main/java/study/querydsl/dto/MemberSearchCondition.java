@@ -0,0 +1,15 @@
+package study.querydsl.dto;
+
+import lombok.Data;
+
+/**
+ * 회원 검색 조건. 모든 조건은 선택이며 null(또는 빈 문자열)이면 조건에서 빠진다.
+ */
+@Data
+public class MemberSearchCondition {
+
+	private String username;
+	private String teamName;
+	private Integer ageGoe; // 나이 >= ageGoe
+	private Integer ageLoe; // 나이 <= ageLoe
+}
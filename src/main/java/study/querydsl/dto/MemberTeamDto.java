@@ -0,0 +1,29 @@
+package study.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 회원 + 팀 조회용 DTO
+ * 엔티티를 조회하지 않으므로 영속성 컨텍스트 등록, 스냅샷, 프록시 생성 비용이 없다.
+ */
+@Getter
+@ToString
+public class MemberTeamDto {
+
+	private final Long memberId;
+	private final String username;
+	private final int age;
+	private final Long teamId;
+	private final String teamName;
+
+	@QueryProjection // 컴파일 시점에 QMemberTeamDto가 생성되어 타입 안전하게 생성자 프로젝션을 사용할 수 있다
+	public MemberTeamDto(Long memberId, String username, int age, Long teamId, String teamName) {
+		this.memberId = memberId;
+		this.username = username;
+		this.age = age;
+		this.teamId = teamId;
+		this.teamName = teamName;
+	}
+}
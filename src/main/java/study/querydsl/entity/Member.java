@@ -1,33 +1,56 @@
 package study.querydsl.entity;
 
+import java.util.List;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Version;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.Hibernate;
+import study.querydsl.entity.listener.MemberEntityListener;
 
 
 @Entity
+@EntityListeners(MemberEntityListener.class) // 변경 내용을 통계/인덱스 등에 전달
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED) // JPA는 기본 생성자가 필요하다. 기본 생성자는 Protected level까지 가능하다
 @ToString(of = {"id", "username", "age"}) // 편의를 위해 ToString을 만든다. 자동으로 만들어 준다
+@Table(indexes = {
+	// 키셋 페이징의 정렬 키 + member_Id 복합 인덱스. username, age 단독 조건 검색에도 사용된다
+	@Index(name = "idx_member_age_id", columnList = "age, member_Id"),
+	@Index(name = "idx_member_username_id", columnList = "username, member_Id"),
+	@Index(name = "idx_member_team_id", columnList = "team_id")
+})
 public class Member {
 
 	@Id
-	@GeneratedValue
+	// pooled 옵티마이저: 시퀀스를 한 번 호출할 때 50개의 id를 확보해서 persist마다 시퀀스를 호출하지 않는다
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+	@SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)
 	@Column(name = "member_Id")
 	private Long Id;
 	private String username;
 	private int age;
 
+	// 낙관적 락: 동시에 수정하면 나중에 커밋하는 쪽이 OptimisticLockException으로 실패한다 (TeamTransferService가 재시도)
+	@Version
+	@Setter(AccessLevel.NONE)
+	private Long version;
+
 	// 연관 관계의 주인
 	@ManyToOne(fetch = FetchType.LAZY) // XToOne의 관계는 LAZY 처리를 필수로 해주어야 한다
 	@JoinColumn(name = "team_id") // 외례키 이름을 명시하여 연관관계를 맺어줄 수 있다
@@ -49,9 +72,31 @@ public class Member {
 		}
 	}
 
+	/**
+	 * 팀의 members는 이미 로딩되어 있을 때만 바꾼다. 양쪽을 맞추려고 팀의 회원 전체를 읽지 않는다.
+	 * bytecode enhancement(lazy initialization)에서는 getMembers() 호출만으로 컬렉션이 로딩되므로
+	 * getter를 부르기 전에 Hibernate.isPropertyInitialized()로 먼저 확인한다.
+	 * 로딩되지 않은 members는 flush 이후 다시 읽을 때 DB 기준으로 맞춰진다.
+	 */
 	public void changeTeam(Team team) {
+		// (로딩되지 않은 컬렉션의 2차 캐시는 hibernate.cache.auto_evict_collection_cache로 무효화된다)
+		if (this.team != null && isMembersLoaded(this.team)) {
+			this.team.getMembers().remove(this);
+		}
 		this.team = team; // member 필드에 team을 넣어주고
-		team.getMembers().add(this); // team 필드에 Member를 넣어 양방향 참조 관계를 만들어 준다.
+		// team 필드에 Member를 넣어 양방향 참조 관계를 만들어 준다
+		if (Hibernate.isPropertyInitialized(team, "members")) {
+			List<Member> members = team.getMembers();
+			// enhancement 없이 로딩된 팀이면 초기화되지 않은 PersistentBag이다. add는 로딩 없이 큐에 쌓인다
+			if (!Hibernate.isInitialized(members) || !members.contains(this)) {
+				members.add(this);
+			}
+		}
+	}
+
+	// 초기화되지 않은 프록시/지연 속성이면 false. 이 검사는 로딩을 일으키지 않는다
+	private static boolean isMembersLoaded(Team team) {
+		return Hibernate.isPropertyInitialized(team, "members") && Hibernate.isInitialized(team.getMembers());
 	}
 
 	// @ToString(of = {"id", "username", "age"})와 같은 기능을 한다
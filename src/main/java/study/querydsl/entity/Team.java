@@ -1,34 +1,56 @@
 package study.querydsl.entity;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.OneToMany;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Version;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OptimisticLock;
+import study.querydsl.entity.listener.TeamEntityListener;
 
 @Entity
+@EntityListeners(TeamEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // 팀은 적고 거의 바뀌지 않으므로 2차 캐시에 둔다. 수정 시 캐시도 함께 갱신된다
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED) // JPA는 기본 생성자가 필요하다. 기본 생성자는 Protected level까지 가능하다
 @ToString(of = {"id", "name", })
 public class Team {
 
 	@Id
-	@GeneratedValue
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+	@SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 50)
 	private Long Id;
 	private String name;
 
+	@Version
+	@Setter(AccessLevel.NONE)
+	private Long version;
+
 	// 연관관계 거울(주인은 mamber)
 	@OneToMany(mappedBy = "team") // 연관관계 주인을 설정한다
-	private List<Member> members = new ArrayList<>();
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // 컬렉션 캐시에는 회원 id 목록만 저장된다
+	// 회원이 팀을 옮길 때마다 팀 version이 올라가면 같은 팀으로의 이동이 모두 충돌한다. 이동은 Member의 version으로 검사한다
+	@OptimisticLock(excluded = true)
+	// 조회된 팀에는 Hibernate가 PersistentBag을 넣는다. 필드에서 바로 만들면 조회할 때마다 버려지는 ArrayList가 생긴다
+	// 그래서 새 팀을 만드는 생성자에서만 만든다
+	private List<Member> members;
 
 	public Team(String name) {
 		this.name = name;
+		this.members = new ArrayList<>();
 	}
 }
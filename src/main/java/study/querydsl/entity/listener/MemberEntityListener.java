@@ -0,0 +1,61 @@
+package study.querydsl.entity.listener;
+
+import java.util.function.Supplier;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import study.querydsl.entity.Member;
+import study.querydsl.event.ChangeType;
+import study.querydsl.event.MemberChangedEvent;
+
+/**
+ * 회원 변경을 스프링 이벤트로 발행한다.
+ * 스프링 부트는 Hibernate에 SpringBeanContainer를 등록하므로 엔티티 리스너도 생성자 주입을 받을 수 있다.
+ */
+public class MemberEntityListener {
+
+	private static final ThreadLocal<Boolean> SUPPRESSED = ThreadLocal.withInitial(() -> false);
+
+	private final ApplicationEventPublisher publisher;
+
+	public MemberEntityListener(ApplicationEventPublisher publisher) {
+		this.publisher = publisher;
+	}
+
+	/**
+	 * 현재 스레드에서 task를 실행하는 동안 회원별 이벤트를 발행하지 않는다.
+	 * 대량 등록처럼 호출한 쪽이 MembersBulkChangedEvent 하나로 알릴 때 사용한다.
+	 * 이벤트는 flush 시점에 발생하므로 task 안에서 flush까지 끝내야 한다.
+	 */
+	public static <T> T withoutEvents(Supplier<T> task) {
+		boolean previous = SUPPRESSED.get();
+		SUPPRESSED.set(true);
+		try {
+			return task.get();
+		} finally {
+			SUPPRESSED.set(previous);
+		}
+	}
+
+	@PostPersist
+	public void postPersist(Member member) {
+		publish(ChangeType.INSERT, member);
+	}
+
+	@PostUpdate
+	public void postUpdate(Member member) {
+		publish(ChangeType.UPDATE, member);
+	}
+
+	@PostRemove
+	public void postRemove(Member member) {
+		publish(ChangeType.DELETE, member);
+	}
+
+	private void publish(ChangeType type, Member member) {
+		if (!SUPPRESSED.get()) {
+			publisher.publishEvent(MemberChangedEvent.of(type, member));
+		}
+	}
+}
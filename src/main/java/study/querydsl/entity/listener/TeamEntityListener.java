@@ -0,0 +1,36 @@
+package study.querydsl.entity.listener;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import study.querydsl.entity.Team;
+import study.querydsl.event.ChangeType;
+import study.querydsl.event.TeamChangedEvent;
+
+/**
+ * 팀 변경을 스프링 이벤트로 발행한다.
+ */
+public class TeamEntityListener {
+
+	private final ApplicationEventPublisher publisher;
+
+	public TeamEntityListener(ApplicationEventPublisher publisher) {
+		this.publisher = publisher;
+	}
+
+	@PostPersist
+	public void postPersist(Team team) {
+		publisher.publishEvent(new TeamChangedEvent(ChangeType.INSERT, team.getId(), team.getName()));
+	}
+
+	@PostUpdate
+	public void postUpdate(Team team) {
+		publisher.publishEvent(new TeamChangedEvent(ChangeType.UPDATE, team.getId(), team.getName()));
+	}
+
+	@PostRemove
+	public void postRemove(Team team) {
+		publisher.publishEvent(new TeamChangedEvent(ChangeType.DELETE, team.getId(), team.getName()));
+	}
+}
@@ -0,0 +1,32 @@
+package study.querydsl.event;
+
+import lombok.Getter;
+import lombok.ToString;
+import study.querydsl.entity.Member;
+
+/**
+ * 회원 한 건이 저장/수정/삭제되었다. (엔티티 리스너가 flush 시점에 발행)
+ * 수신 측은 @TransactionalEventListener로 커밋 이후에만 반영한다.
+ */
+@Getter
+@ToString
+public class MemberChangedEvent {
+
+	private final ChangeType type;
+	private final Long memberId;
+	private final Long teamId; // 팀이 없으면 null
+	private final int age;
+
+	public MemberChangedEvent(ChangeType type, Long memberId, Long teamId, int age) {
+		this.type = type;
+		this.memberId = memberId;
+		this.teamId = teamId;
+		this.age = age;
+	}
+
+	public static MemberChangedEvent of(ChangeType type, Member member) {
+		// 팀 프록시의 id 조회는 프록시를 초기화하지 않는다
+		Long teamId = member.getTeam() == null ? null : member.getTeam().getId();
+		return new MemberChangedEvent(type, member.getId(), teamId, member.getAge());
+	}
+}
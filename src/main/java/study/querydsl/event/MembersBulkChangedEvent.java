@@ -0,0 +1,8 @@
+package study.querydsl.event;
+
+/**
+ * 벌크 연산처럼 엔티티 리스너를 거치지 않고 회원 테이블이 변경되었다.
+ * 어떤 row가 바뀌었는지 알 수 없으므로 수신 측은 필요한 상태를 DB에서 다시 만든다.
+ */
+public class MembersBulkChangedEvent {
+}
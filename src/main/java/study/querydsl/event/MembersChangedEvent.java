@@ -0,0 +1,19 @@
+package study.querydsl.event;
+
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * 여러 회원이 한 번에 수정되었다. (MemberWriteBehindService의 flush)
+ * 회원마다 반영 후의 (id, 팀, 나이)를 담는다. MembersBulkChangedEvent와 달리 바뀐 row를 알고 있으므로
+ * 수신 측은 DB에서 다시 만들지 않고 목록을 한 번에 반영한다.
+ */
+@Getter
+public class MembersChangedEvent {
+
+	private final List<MemberChangedEvent> changes;
+
+	public MembersChangedEvent(List<MemberChangedEvent> changes) {
+		this.changes = changes;
+	}
+}
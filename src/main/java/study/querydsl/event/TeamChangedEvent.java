@@ -0,0 +1,22 @@
+package study.querydsl.event;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 팀 한 건이 저장/수정/삭제되었다. (엔티티 리스너가 flush 시점에 발행)
+ */
+@Getter
+@ToString
+public class TeamChangedEvent {
+
+	private final ChangeType type;
+	private final Long teamId;
+	private final String name;
+
+	public TeamChangedEvent(ChangeType type, Long teamId, String name) {
+		this.type = type;
+		this.teamId = teamId;
+		this.name = name;
+	}
+}
@@ -0,0 +1,103 @@
+package study.querydsl.repository;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnitUtil;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+/**
+ * 지연 로딩 연관관계를 IN 쿼리로 한 번에 로딩한다. (N+1 방지)
+ * - loadTeams(): 아직 초기화되지 않은 Member.team 프록시를 모아 team id in (...)으로 조회
+ * - loadMembers(): 아직 초기화되지 않은 Team.members 컬렉션을 모아 fetch join + team id in (...)으로 조회
+ * IN 절 하나에 들어가는 id 수는 querydsl.batch-fetch.size(기본 100)로 조정한다.
+ */
+@Repository
+public class BatchFetcher {
+
+	private final JPAQueryFactory queryFactory;
+	private final PersistenceUnitUtil persistenceUnitUtil;
+	private final int batchSize;
+
+	public BatchFetcher(JPAQueryFactory queryFactory, EntityManagerFactory emf,
+		@Value("${querydsl.batch-fetch.size:100}") int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("querydsl.batch-fetch.size는 1 이상이어야 합니다: " + batchSize);
+		}
+		this.queryFactory = queryFactory;
+		this.persistenceUnitUtil = emf.getPersistenceUnitUtil();
+		this.batchSize = batchSize;
+	}
+
+	public void loadTeams(Collection<Member> members) {
+		Set<Long> teamIds = new LinkedHashSet<>();
+		List<Team> proxies = new ArrayList<>();
+		for (Member m : members) {
+			Team t = m.getTeam();
+			if (t != null && !persistenceUnitUtil.isLoaded(t)) {
+				teamIds.add(t.getId()); // 프록시의 id 조회는 초기화를 일으키지 않는다
+				proxies.add(t);
+			}
+		}
+
+		for (List<Long> ids : chunk(teamIds)) {
+			queryFactory
+				.selectFrom(team)
+				.where(team.Id.in(ids))
+				.fetch();
+		}
+		// 엔티티가 이미 영속성 컨텍스트에 있으므로 추가 SQL 없이 프록시가 초기화된다
+		proxies.forEach(Hibernate::initialize);
+	}
+
+	public void loadMembers(Collection<Team> teams) {
+		Set<Long> teamIds = new LinkedHashSet<>();
+		List<Team> proxies = new ArrayList<>();
+		for (Team t : teams) {
+			if (!persistenceUnitUtil.isLoaded(t)) {
+				teamIds.add(t.getId());
+				proxies.add(t);
+			} else if (!persistenceUnitUtil.isLoaded(t, "members")) {
+				// getMembers()를 먼저 부르면 bytecode enhancement(lazy initialization)에서는 그 팀의 컬렉션이 바로 로딩된다
+				teamIds.add(t.getId());
+			}
+		}
+
+		for (List<Long> ids : chunk(teamIds)) {
+			// 영속성 컨텍스트에 있는 Team의 members 컬렉션이 fetch join 결과로 초기화된다
+			queryFactory
+				.selectFrom(team).distinct()
+				.leftJoin(team.members, member).fetchJoin()
+				.where(team.Id.in(ids))
+				.fetch();
+		}
+		proxies.forEach(Hibernate::initialize);
+	}
+
+	private List<List<Long>> chunk(Collection<Long> ids) {
+		List<List<Long>> chunks = new ArrayList<>();
+		List<Long> current = new ArrayList<>(batchSize);
+		for (Long id : ids) {
+			current.add(id);
+			if (current.size() == batchSize) {
+				chunks.add(current);
+				current = new ArrayList<>(batchSize);
+			}
+		}
+		if (!current.isEmpty()) {
+			chunks.add(current);
+		}
+		return chunks;
+	}
+}
@@ -0,0 +1,92 @@
+package study.querydsl.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 키셋 페이징 커서 인코딩/디코딩
+ * 클라이언트에게는 정렬 키(age 또는 username)와 member_Id를 Base64로 감싼 불투명(opaque) 문자열만 전달한다.
+ * 형식: "A:{age}:{id}" / "U:{id}:{username}" / "N:{id}"(username이 null인 경우)
+ */
+final class KeysetCursor {
+
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	private final Integer age;
+	private final String username;
+	private final Long id;
+
+	private KeysetCursor(Integer age, String username, Long id) {
+		this.age = age;
+		this.username = username;
+		this.id = id;
+	}
+
+	static String ofAge(int age, Long id) {
+		return encode("A:" + age + ":" + id);
+	}
+
+	static String ofUsername(String username, Long id) {
+		return username == null ? encode("N:" + id) : encode("U:" + id + ":" + username);
+	}
+
+	static KeysetCursor decodeAge(String cursor) {
+		String[] parts = decode(cursor).split(":", 3);
+		if (parts.length != 3 || !"A".equals(parts[0])) {
+			throw new IllegalArgumentException("잘못된 age 커서입니다: " + cursor);
+		}
+		return new KeysetCursor(parseInt(parts[1], cursor), null, parseLong(parts[2], cursor));
+	}
+
+	static KeysetCursor decodeUsername(String cursor) {
+		String[] parts = decode(cursor).split(":", 3);
+		if (parts.length == 2 && "N".equals(parts[0])) {
+			return new KeysetCursor(null, null, parseLong(parts[1], cursor));
+		}
+		if (parts.length != 3 || !"U".equals(parts[0])) {
+			throw new IllegalArgumentException("잘못된 username 커서입니다: " + cursor);
+		}
+		return new KeysetCursor(null, parts[2], parseLong(parts[1], cursor));
+	}
+
+	int getAge() {
+		return age;
+	}
+
+	String getUsername() {
+		return username;
+	}
+
+	Long getId() {
+		return id;
+	}
+
+	private static String encode(String raw) {
+		return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String decode(String cursor) {
+		try {
+			return new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("잘못된 커서입니다: " + cursor, e);
+		}
+	}
+
+	private static int parseInt(String value, String cursor) {
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("잘못된 커서입니다: " + cursor, e);
+		}
+	}
+
+	private static long parseLong(String value, String cursor) {
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("잘못된 커서입니다: " + cursor, e);
+		}
+	}
+}
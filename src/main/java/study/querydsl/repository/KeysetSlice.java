@@ -0,0 +1,24 @@
+package study.querydsl.repository;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 키셋(커서) 페이징 결과
+ * count 쿼리 없이 다음 페이지 존재 여부(hasNext)와 다음 페이지 조회용 커서만 제공한다.
+ */
+@Getter
+@ToString(of = {"nextCursor", "hasNext"})
+public class KeysetSlice<T> {
+
+	private final List<T> content;
+	private final String nextCursor; // 다음 페이지가 없으면 null
+	private final boolean hasNext;
+
+	public KeysetSlice(List<T> content, String nextCursor, boolean hasNext) {
+		this.content = content;
+		this.nextCursor = nextCursor;
+		this.hasNext = hasNext;
+	}
+}
@@ -0,0 +1,254 @@
+package study.querydsl.repository;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Repository;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.QMemberDto;
+import study.querydsl.entity.Member;
+import study.querydsl.support.QueryTemplateCache;
+
+/**
+ * 회원 목록 조회용 Querydsl 리포지토리
+ * offset/limit + fetchResults() 대신 키셋(seek) 방식으로 페이징한다.
+ * - count 쿼리를 실행하지 않는다
+ * - 마지막으로 본 (정렬 키, member_Id) 다음부터 인덱스를 타고 읽기 때문에 페이지가 깊어져도 건너뛰는 row가 없다
+ */
+@Repository
+public class MemberQueryRepository {
+
+	// QueryTemplate 자리표시자. 쿼리 모양과 바인딩에 같은 인스턴스를 써야 한다
+	private static final Param<String> USERNAME = new Param<>(String.class, "username");
+	private static final Param<Integer> AGE = new Param<>(Integer.class, "age");
+
+	private final JPAQueryFactory queryFactory;
+	private final QuerydslPaging paging;
+	private final QueryTemplateCache templates;
+
+	public MemberQueryRepository(JPAQueryFactory queryFactory, QuerydslPaging paging, QueryTemplateCache templates) {
+		this.queryFactory = queryFactory;
+		this.paging = paging;
+		this.templates = templates;
+	}
+
+	/**
+	 * 동적 검색. null 조건은 where에서 빠지고, 팀 이름 조건이 있을 때만 team을 조인한다.
+	 */
+	public List<MemberDto> search(MemberSearchCondition condition) {
+		return searchQuery(condition)
+			.orderBy(member.Id.asc())
+			.fetch();
+	}
+
+	/**
+	 * 동적 검색 + 페이징. 필요할 때만 count 쿼리를 실행한다
+	 */
+	public Page<MemberDto> search(MemberSearchCondition condition, Pageable pageable) {
+		JPAQuery<Long> countQuery = withTeamJoin(queryFactory.select(member.count()).from(member), condition)
+			.where(searchConditions(condition));
+		return paging.page(searchQuery(condition).orderBy(member.Id.asc()), countQuery, pageable);
+	}
+
+	/**
+	 * 동적 검색 결과 한 페이지를 한 건씩 읽는다. 다음 페이지 여부를 알 수 있도록 페이지 크기 + 1건까지 읽는다
+	 */
+	public CloseableIterator<MemberDto> iterate(MemberSearchCondition condition, Pageable pageable) {
+		return searchQuery(condition)
+			.orderBy(member.Id.asc())
+			.offset(pageable.getOffset())
+			.limit(pageable.getPageSize() + 1L)
+			.iterate();
+	}
+
+	// 팀 소속 회원 한 페이지. team_id 컬럼으로 조회하므로 team을 조인하지 않는다
+	public CloseableIterator<MemberDto> iterateByTeamId(Long teamId, Pageable pageable) {
+		return queryFactory
+			.select(new QMemberDto(member.Id, member.username, member.age, member.team.Id))
+			.from(member)
+			.where(member.team.Id.eq(teamId))
+			.orderBy(member.Id.asc())
+			.offset(pageable.getOffset())
+			.limit(pageable.getPageSize() + 1L)
+			.iterate();
+	}
+
+	JPAQuery<MemberDto> searchQuery(MemberSearchCondition condition) {
+		return withTeamJoin(queryFactory
+				.select(new QMemberDto(member.Id, member.username, member.age, member.team.Id)) // team_id는 FK 컬럼
+				.from(member), condition)
+			.where(searchConditions(condition));
+	}
+
+	private <T> JPAQuery<T> withTeamJoin(JPAQuery<T> query, MemberSearchCondition condition) {
+		if (hasText(condition.getTeamName())) {
+			query.join(member.team, team);
+		}
+		return query;
+	}
+
+	// 인덱스를 탈 수 있는 선택도 높은 조건부터 나열한다: username(=) -> team(=) -> age(범위)
+	private BooleanExpression[] searchConditions(MemberSearchCondition condition) {
+		return new BooleanExpression[] {
+			usernameEq(condition.getUsername()),
+			teamNameEq(condition.getTeamName()),
+			ageBetween(condition.getAgeGoe(), condition.getAgeLoe())
+		};
+	}
+
+	private BooleanExpression usernameEq(String username) {
+		return hasText(username) ? member.username.eq(username) : null;
+	}
+
+	private BooleanExpression teamNameEq(String teamName) {
+		return hasText(teamName) ? team.name.eq(teamName) : null;
+	}
+
+	private BooleanExpression ageBetween(Integer ageGoe, Integer ageLoe) {
+		if (ageGoe != null && ageLoe != null) {
+			return member.age.between(ageGoe, ageLoe);
+		}
+		if (ageGoe != null) {
+			return member.age.goe(ageGoe);
+		}
+		return ageLoe != null ? member.age.loe(ageLoe) : null;
+	}
+
+	/**
+	 * QuerydslBasicTest.search()와 같은 모양. 직렬화된 JPQL을 재사용하고 파라미터만 바인딩한다
+	 */
+	public Member findByUsernameAndAge(String username, int age) {
+		return templates.get("member.findByUsernameAndAge", () -> queryFactory
+				.selectFrom(member)
+				.where(member.username.eq(USERNAME).and(member.age.eq(AGE))))
+			.bind(USERNAME, username)
+			.bind(AGE, age)
+			.fetchOne();
+	}
+
+	/**
+	 * QuerydslBasicTest.searchAndParam()과 같은 모양 (where에 조건을 나열)
+	 */
+	public List<Member> findByUsernameAndAgeParams(String username, int age) {
+		return templates.get("member.findByUsernameAndAgeParams", () -> queryFactory
+				.selectFrom(member)
+				.where(member.username.eq(USERNAME), member.age.eq(AGE)))
+			.bind(USERNAME, username)
+			.bind(AGE, age)
+			.fetch();
+	}
+
+	/**
+	 * username 내림차순 offset 페이징. total이 필요한 화면용
+	 * 첫 페이지/마지막 페이지처럼 content 크기로 total을 알 수 있으면 count 쿼리를 생략한다.
+	 */
+	public Page<Member> findPageOrderByUsernameDesc(Pageable pageable) {
+		return paging.page(
+			queryFactory
+				.selectFrom(member)
+				.orderBy(member.username.desc(), member.Id.asc()),
+			queryFactory
+				.select(member.count())
+				.from(member),
+			pageable);
+	}
+
+	/**
+	 * username 내림차순 Slice 페이징. '더 보기' 방식처럼 total이 필요 없는 화면용
+	 */
+	public Slice<Member> findSliceOrderByUsernameDesc(Pageable pageable) {
+		return paging.slice(
+			queryFactory
+				.selectFrom(member)
+				.orderBy(member.username.desc(), member.Id.asc()),
+			pageable);
+	}
+
+	/**
+	 * (age, member_Id) 오름차순 키셋 페이징
+	 * @param cursor 이전 페이지의 nextCursor, 첫 페이지는 null
+	 */
+	public KeysetSlice<Member> findPageOrderByAge(String cursor, int size) {
+		validateSize(size);
+		List<Member> result = queryFactory
+			.selectFrom(member)
+			.where(afterAge(cursor))
+			.orderBy(member.age.asc(), member.Id.asc())
+			.limit(size + 1) // 한 건을 더 조회해서 다음 페이지 존재 여부를 판단한다
+			.fetch();
+
+		boolean hasNext = result.size() > size;
+		List<Member> content = hasNext ? result.subList(0, size) : result;
+		String nextCursor = null;
+		if (hasNext) {
+			Member last = content.get(content.size() - 1);
+			nextCursor = KeysetCursor.ofAge(last.getAge(), last.getId());
+		}
+		return new KeysetSlice<>(content, nextCursor, hasNext);
+	}
+
+	/**
+	 * (username, member_Id) 오름차순 키셋 페이징
+	 * username이 null인 회원은 가장 앞에 온다(nulls first)
+	 * @param cursor 이전 페이지의 nextCursor, 첫 페이지는 null
+	 */
+	public KeysetSlice<Member> findPageOrderByUsername(String cursor, int size) {
+		validateSize(size);
+		List<Member> result = queryFactory
+			.selectFrom(member)
+			.where(afterUsername(cursor))
+			.orderBy(member.username.asc().nullsFirst(), member.Id.asc())
+			.limit(size + 1)
+			.fetch();
+
+		boolean hasNext = result.size() > size;
+		List<Member> content = hasNext ? result.subList(0, size) : result;
+		String nextCursor = null;
+		if (hasNext) {
+			Member last = content.get(content.size() - 1);
+			nextCursor = KeysetCursor.ofUsername(last.getUsername(), last.getId());
+		}
+		return new KeysetSlice<>(content, nextCursor, hasNext);
+	}
+
+	// age > :age or (age = :age and member_Id > :id)
+	private BooleanExpression afterAge(String cursor) {
+		if (cursor == null) {
+			return null; // 첫 페이지. where 조건에 null이 들어가면 무시된다
+		}
+		KeysetCursor key = KeysetCursor.decodeAge(cursor);
+		return member.age.gt(key.getAge())
+			.or(member.age.eq(key.getAge()).and(member.Id.gt(key.getId())));
+	}
+
+	private BooleanExpression afterUsername(String cursor) {
+		if (cursor == null) {
+			return null;
+		}
+		KeysetCursor key = KeysetCursor.decodeUsername(cursor);
+		if (key.getUsername() == null) {
+			// 아직 username이 null인 구간을 읽는 중: 남은 null 구간 + null이 아닌 전체
+			return member.username.isNull().and(member.Id.gt(key.getId()))
+				.or(member.username.isNotNull());
+		}
+		return member.username.gt(key.getUsername())
+			.or(member.username.eq(key.getUsername()).and(member.Id.gt(key.getId())));
+	}
+
+	private void validateSize(int size) {
+		if (size < 1) {
+			throw new IllegalArgumentException("size는 1 이상이어야 합니다: " + size);
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package study.querydsl.repository;
+
+import static study.querydsl.sql.SMember.member;
+import static study.querydsl.sql.STeam.team;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.Tuple;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.StatementOptions;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.stereotype.Repository;
+import study.querydsl.dto.AgeStats;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberTeamDto;
+
+/**
+ * Querydsl SQL(SQLQueryFactory)로 작성한 리포트/export 조회
+ * MemberReadService, TeamAgeReportService의 JPA 쿼리와 결과가 같다.
+ * 트랜잭션 안에서 호출해야 한다. (SpringConnectionProvider)
+ */
+@Repository
+public class MemberSqlRepository {
+
+	private final SQLQueryFactory queryFactory;
+
+	public MemberSqlRepository(SQLQueryFactory queryFactory) {
+		this.queryFactory = queryFactory;
+	}
+
+	public List<MemberTeamDto> findMemberTeams() {
+		return selectMemberTeam()
+			.orderBy(member.memberId.asc())
+			.fetch();
+	}
+
+	public List<MemberTeamDto> findMemberTeamsByTeamName(String teamName) {
+		return selectMemberTeam()
+			.where(team.name.eq(teamName))
+			.orderBy(member.memberId.asc())
+			.fetch();
+	}
+
+	// export용. ResultSet을 한 row씩 읽어 DTO로 만든다. 반드시 닫아야 한다
+	public CloseableIterator<MemberTeamDto> iterateMemberTeams(int fetchSize) {
+		SQLQuery<MemberTeamDto> query = selectMemberTeam().orderBy(member.memberId.asc());
+		query.setStatementOptions(StatementOptions.builder().setFetchSize(fetchSize).build());
+		return query.iterate();
+	}
+
+	public Map<String, AgeStats> groupByTeamName() {
+		List<Tuple> rows = queryFactory
+			.select(team.name, member.count(), member.age.sum().longValue(), member.age.min(), member.age.max())
+			.from(member)
+			.join(team).on(member.teamId.eq(team.id))
+			.groupBy(team.name)
+			.fetch();
+		Map<String, AgeStats> result = new HashMap<>();
+		for (Tuple row : rows) {
+			result.put(row.get(0, String.class), new AgeStats(
+				row.get(1, Long.class),
+				row.get(2, Long.class),
+				row.get(3, Integer.class),
+				row.get(4, Integer.class)));
+		}
+		return result;
+	}
+
+	private SQLQuery<MemberTeamDto> selectMemberTeam() {
+		return queryFactory
+			.select(new QMemberTeamDto(member.memberId, member.username, member.age, team.id, team.name))
+			.from(member)
+			.leftJoin(team).on(member.teamId.eq(team.id));
+	}
+}
@@ -0,0 +1,164 @@
+package study.querydsl.repository;
+
+import static study.querydsl.entity.QMember.member;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.sql.SQLExpressions;
+import com.querydsl.sql.SQLQueryFactory;
+import java.util.List;
+import org.springframework.stereotype.Repository;
+import study.querydsl.entity.QMember;
+import study.querydsl.sql.SMember;
+
+/**
+ * JPAExpressions 서브쿼리와, 같은 결과를 내는 대안 쿼리 모음 (결과는 모두 member id 오름차순)
+ * - subquery: JPAExpressions (QuerydslBasicTest.subQuery()와 같은 형태)
+ * - twoStep: 서브쿼리 값을 먼저 조회하고 그 값을 상수 조건으로 넣는다
+ * - window / derivedTable: Querydsl SQL(SQLQueryFactory, SMember). JPQL에 없는 윈도 함수와 from/join 서브쿼리를 쓴다.
+ *   테이블을 한 번만 읽는다. SpringConnectionProvider를 쓰므로 트랜잭션 안에서 호출한다
+ * 상관 서브쿼리(팀 평균)는 DB가 row마다 서브쿼리를 실행할 수 있으므로 대안을 쓰는 것이 좋다.
+ * 비상관 서브쿼리(전체 max)는 대부분의 DB가 한 번만 실행하므로 차이가 작다. MemberSubqueryBenchmark로 비교한다.
+ */
+@Repository
+public class MemberSubqueryRepository {
+
+	// 윈도 함수/서브쿼리 결과 컬럼의 별칭
+	private static final String MAX_AGE = "max_age";
+	private static final String TEAM_AVG = "team_avg";
+
+	private final JPAQueryFactory queryFactory;
+	private final SQLQueryFactory sqlQueryFactory;
+
+	public MemberSubqueryRepository(JPAQueryFactory queryFactory, SQLQueryFactory sqlQueryFactory) {
+		this.queryFactory = queryFactory;
+		this.sqlQueryFactory = sqlQueryFactory;
+	}
+
+	// 나이가 가장 많은 회원
+
+	public List<Long> findIdsWithMaxAgeSubquery() {
+		QMember memberSub = new QMember("memberSub");
+		return queryFactory
+			.select(member.Id)
+			.from(member)
+			.where(member.age.eq(
+				JPAExpressions.select(memberSub.age.max())
+					.from(memberSub)))
+			.orderBy(member.Id.asc())
+			.fetch();
+	}
+
+	public List<Long> findIdsWithMaxAgeTwoStep() {
+		Integer maxAge = queryFactory
+			.select(member.age.max())
+			.from(member)
+			.fetchOne();
+		if (maxAge == null) {
+			return List.of();
+		}
+		return queryFactory
+			.select(member.Id)
+			.from(member)
+			.where(member.age.eq(maxAge)) // idx_member_age_id 사용
+			.orderBy(member.Id.asc())
+			.fetch();
+	}
+
+	public List<Long> findIdsWithMaxAgeWindow() {
+		SMember m = new SMember("m");
+		return sqlQueryFactory
+			.select(m.memberId)
+			.from(SQLExpressions
+				.select(SMember.member.memberId, SMember.member.age,
+					SQLExpressions.max(SMember.member.age).over().as(MAX_AGE))
+				.from(SMember.member), m)
+			.where(m.age.eq(Expressions.numberPath(Integer.class, m, MAX_AGE)))
+			.orderBy(m.memberId.asc())
+			.fetch();
+	}
+
+	// 소속 팀의 평균 나이보다 나이가 많은 회원 (팀이 없는 회원 제외)
+
+	public List<Long> findIdsAboveTeamAvgSubquery() {
+		QMember memberSub = new QMember("memberSub");
+		return queryFactory
+			.select(member.Id)
+			.from(member)
+			.where(member.age.gt(
+				JPAExpressions.select(memberSub.age.avg())
+					.from(memberSub)
+					.where(memberSub.team.eq(member.team)))) // 상관 서브쿼리
+			.orderBy(member.Id.asc())
+			.fetch();
+	}
+
+	/**
+	 * 팀별 평균을 먼저 조회하고 (team = ? and age > ?) or ... 조건으로 바꾼다.
+	 * 조건 수가 팀 수만큼 늘어나므로 팀이 적을 때 사용한다.
+	 */
+	public List<Long> findIdsAboveTeamAvgTwoStep() {
+		List<Tuple> averages = queryFactory
+			.select(member.team.Id, member.age.avg())
+			.from(member)
+			.where(member.team.isNotNull())
+			.groupBy(member.team.Id)
+			.fetch();
+		if (averages.isEmpty()) {
+			return List.of();
+		}
+		BooleanBuilder condition = new BooleanBuilder();
+		for (Tuple row : averages) {
+			// age는 정수이므로 age > avg 와 age > floor(avg)는 같다. Integer 경로에 Double을 바인딩하지 않는다
+			int floorAvg = (int) Math.floor(row.get(1, Double.class));
+			condition.or(member.team.Id.eq(row.get(0, Long.class)).and(member.age.gt(floorAvg)));
+		}
+		return queryFactory
+			.select(member.Id)
+			.from(member)
+			.where(condition)
+			.orderBy(member.Id.asc())
+			.fetch();
+	}
+
+	// JPQL avg()와 같도록 double로 평균을 낸다 (정수 컬럼의 avg는 DB에 따라 정수로 잘린다)
+	public List<Long> findIdsAboveTeamAvgWindow() {
+		SMember m = new SMember("m");
+		return sqlQueryFactory
+			.select(m.memberId)
+			.from(SQLExpressions
+				.select(SMember.member.memberId, SMember.member.age,
+					SQLExpressions.avg(SMember.member.age.castToNum(Double.class))
+						.over().partitionBy(SMember.member.teamId).as(TEAM_AVG))
+				.from(SMember.member)
+				.where(SMember.member.teamId.isNotNull()), m)
+			.where(m.age.gt(teamAvg(m)))
+			.orderBy(m.memberId.asc())
+			.fetch();
+	}
+
+	public List<Long> findIdsAboveTeamAvgDerivedTable() {
+		SMember m = new SMember("m");
+		SMember a = new SMember("a");
+		return sqlQueryFactory
+			.select(m.memberId)
+			.from(m)
+			.join(SQLExpressions
+				.select(SMember.member.teamId, SMember.member.age.castToNum(Double.class).avg().as(TEAM_AVG))
+				.from(SMember.member)
+				.groupBy(SMember.member.teamId), a)
+			.on(m.teamId.eq(a.teamId))
+			.where(m.age.gt(teamAvg(a)))
+			.orderBy(m.memberId.asc())
+			.fetch();
+	}
+
+	// 서브쿼리 별칭(alias)의 team_avg 컬럼
+	private static NumberPath<Double> teamAvg(SMember alias) {
+		return Expressions.numberPath(Double.class, alias, TEAM_AVG);
+	}
+}
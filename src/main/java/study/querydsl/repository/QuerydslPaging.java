@@ -0,0 +1,78 @@
+package study.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * fetchResults()/fetchCount() 대신 사용하는 페이징 도우미
+ * - page(): 첫 페이지의 content가 pageSize보다 작거나, 마지막 페이지인 경우 count 쿼리를 생략한다
+ * - slice(): limit + 1건을 조회해서 hasNext만 판단한다. count 쿼리를 아예 실행하지 않는다
+ * 생략한 count 쿼리 수는 countQueriesSkipped로 확인할 수 있다.
+ */
+@Component
+public class QuerydslPaging {
+
+	private final AtomicLong countQueriesExecuted = new AtomicLong();
+	private final AtomicLong countQueriesSkipped = new AtomicLong();
+
+	/**
+	 * @param contentQuery 정렬까지 지정된 content 쿼리 (offset/limit은 여기서 적용한다)
+	 * @param countQuery   select count 쿼리. 필요할 때만 실행된다
+	 */
+	public <T> Page<T> page(JPAQuery<T> contentQuery, JPAQuery<Long> countQuery, Pageable pageable) {
+		List<T> content = applyPaging(contentQuery, pageable, 0).fetch();
+
+		boolean[] executed = {false};
+		Page<T> page = PageableExecutionUtils.getPage(content, pageable, () -> {
+			executed[0] = true;
+			Long total = countQuery.fetchOne();
+			return total == null ? 0 : total;
+		});
+
+		if (executed[0]) {
+			countQueriesExecuted.incrementAndGet();
+		} else {
+			countQueriesSkipped.incrementAndGet(); // content 크기로 total을 계산할 수 있어서 생략
+		}
+		return page;
+	}
+
+	/**
+	 * count 쿼리 없이 다음 페이지 존재 여부만 판단한다.
+	 */
+	public <T> Slice<T> slice(JPAQuery<T> contentQuery, Pageable pageable) {
+		List<T> result = applyPaging(contentQuery, pageable, 1).fetch();
+		countQueriesSkipped.incrementAndGet();
+
+		if (pageable.isUnpaged()) {
+			return new SliceImpl<>(result, pageable, false);
+		}
+		boolean hasNext = result.size() > pageable.getPageSize();
+		List<T> content = hasNext ? result.subList(0, pageable.getPageSize()) : result;
+		return new SliceImpl<>(content, pageable, hasNext);
+	}
+
+	public long getCountQueriesExecuted() {
+		return countQueriesExecuted.get();
+	}
+
+	public long getCountQueriesSkipped() {
+		return countQueriesSkipped.get();
+	}
+
+	private <T> JPAQuery<T> applyPaging(JPAQuery<T> query, Pageable pageable, int extra) {
+		if (pageable.isUnpaged()) {
+			return query;
+		}
+		return query
+			.offset(pageable.getOffset())
+			.limit(pageable.getPageSize() + extra);
+	}
+}
@@ -0,0 +1,88 @@
+package study.querydsl.repository;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import study.querydsl.entity.Team;
+
+/**
+ * 팀 조회용 리포지토리
+ * 조회 결과(팀 id 목록)는 쿼리 캐시(query.team 영역)에, 팀 엔티티는 2차 캐시에 저장된다.
+ * team 테이블이 변경되면 Hibernate가 쿼리 캐시를 자동으로 무효화한다.
+ */
+@Repository
+public class TeamQueryRepository {
+
+	public static final String QUERY_CACHE_REGION = "query.team";
+
+	private final JPAQueryFactory queryFactory;
+	private final QuerydslPaging paging;
+
+	public TeamQueryRepository(JPAQueryFactory queryFactory, QuerydslPaging paging) {
+		this.queryFactory = queryFactory;
+		this.paging = paging;
+	}
+
+	public Team findByName(String name) {
+		return cacheable(queryFactory
+			.selectFrom(team)
+			.where(team.name.eq(name)))
+			.fetchOne();
+	}
+
+	public List<Team> findAll() {
+		return cacheable(queryFactory
+			.selectFrom(team)
+			.orderBy(team.name.asc()))
+			.fetch();
+	}
+
+	/**
+	 * 팀 페이지 + 각 팀의 members를 함께 조회한다. (이름순)
+	 * 컬렉션 fetch join에 offset/limit을 걸면 Hibernate가 전체 결과를 메모리에 올린 뒤 자른다. (HHH000104)
+	 * 그래서 두 단계로 나눈다.
+	 * 1. 팀 id만 페이징해서 조회한다 (DB에서 offset/limit 적용)
+	 * 2. 그 id들의 팀을 members fetch join으로 한 번에 조회한다 (IN 절 크기 = 페이지 크기)
+	 * SQL은 페이지마다 2번 + count 쿼리(필요할 때만)로 고정이다.
+	 */
+	public Page<Team> findPageWithMembers(Pageable pageable) {
+		JPAQuery<Long> idQuery = queryFactory
+			.select(team.Id)
+			.from(team)
+			.orderBy(team.name.asc(), team.Id.asc());
+		JPAQuery<Long> countQuery = queryFactory
+			.select(team.count())
+			.from(team);
+		Page<Long> ids = paging.page(idQuery, countQuery, pageable);
+		if (ids.isEmpty()) {
+			return ids.map(id -> null);
+		}
+
+		Map<Long, Team> teams = queryFactory
+			.selectFrom(team).distinct() // 회원 수만큼 중복된 Team row를 하나로 합친다
+			.leftJoin(team.members, member).fetchJoin()
+			.where(team.Id.in(ids.getContent()))
+			.orderBy(member.Id.asc())
+			.setHint(QueryHints.HINT_PASS_DISTINCT_THROUGH, false) // SQL에는 distinct를 붙이지 않는다
+			.fetch()
+			.stream()
+			.collect(Collectors.toMap(Team::getId, Function.identity()));
+		return ids.map(teams::get); // 1단계의 정렬 순서를 유지한다
+	}
+
+	private <T> JPAQuery<T> cacheable(JPAQuery<T> query) {
+		return query
+			.setHint(QueryHints.HINT_CACHEABLE, true)
+			.setHint(QueryHints.HINT_CACHE_REGION, QUERY_CACHE_REGION);
+	}
+}
@@ -0,0 +1,482 @@
+package study.querydsl.service;
+
+import static study.querydsl.entity.QMember.member;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.event.ChangeType;
+import study.querydsl.event.MemberChangedEvent;
+import study.querydsl.event.MembersBulkChangedEvent;
+import study.querydsl.event.MembersChangedEvent;
+import study.querydsl.support.StartupRebuildRunner;
+
+/**
+ * "팀 X에서 나이가 a~b인 회원" 조회용 메모리 인덱스 (querydsl.member-index.enabled=true 일 때만 등록)
+ * - 팀 id 순으로 정렬된 long[]과, 팀마다 (age, member id) 순으로 정렬된 int[]/long[] 세그먼트로 저장한다.
+ *   변경 반영에 쓰는 회원 id -> 팀 id 맵도 long[] 두 개로 된 open addressing 맵이다. 상주하는 상태에는 박싱이 없다
+ * - 조회는 팀 이진 탐색 + 나이 범위 이진 탐색이다. 락 없이 현재 스냅샷을 읽는다
+ * - 변경은 TeamStatsService와 같이 커밋 이후 이벤트로 반영한다. 이벤트를 큐에 모아 두고 한 번에 반영하며,
+ *   바뀐 팀마다 기존 세그먼트를 한 번 훑어 추가분과 병합한 새 세그먼트로 교체한다
+ * 팀이 없는 회원은 인덱스에 넣지 않는다.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "querydsl.member-index", name = "enabled", havingValue = "true")
+public class MemberAgeIndex {
+
+	private static final long[] NO_IDS = new long[0];
+
+	private final JPAQueryFactory queryFactory;
+	private final TransactionTemplate readOnlyTransaction;
+	private final StartupRebuildRunner startupRebuildRunner;
+
+	// 변경은 this 락 안에서 새 스냅샷을 만들어 교체한다
+	private volatile Snapshot snapshot = Snapshot.EMPTY;
+	// 인덱스에 들어 있는 회원 id -> 팀 id. 이벤트에 이전 팀이 없으므로 여기서 찾는다. this 락으로 보호한다
+	private final LongLongMap teamByMember = new LongLongMap();
+	// 아직 반영하지 않은 이벤트. 다른 스레드가 반영 중에 들어온 이벤트는 다음 반영에 모아서 처리한다
+	private final Queue<MemberChangedEvent> pending = new ConcurrentLinkedQueue<>();
+
+	public MemberAgeIndex(JPAQueryFactory queryFactory, PlatformTransactionManager transactionManager,
+		StartupRebuildRunner startupRebuildRunner) {
+		this.queryFactory = queryFactory;
+		this.startupRebuildRunner = startupRebuildRunner;
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+		// 커밋 이후(afterCommit) 이벤트 처리 중에도 호출되므로 끝난 트랜잭션에 참여하지 않도록 새 트랜잭션을 연다
+		this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	/**
+	 * @return 나이 오름차순(같은 나이는 id 오름차순)으로 정렬된 회원 id
+	 */
+	public long[] findMemberIds(long teamId, int minAge, int maxAge) {
+		Segment segment = snapshot.segment(teamId);
+		if (segment == null || minAge > maxAge) {
+			return NO_IDS;
+		}
+		int from = segment.lowerBound(minAge);
+		int to = segment.upperBound(maxAge);
+		return from < to ? Arrays.copyOfRange(segment.ids, from, to) : NO_IDS;
+	}
+
+	public int count(long teamId, int minAge, int maxAge) {
+		Segment segment = snapshot.segment(teamId);
+		if (segment == null || minAge > maxAge) {
+			return 0;
+		}
+		return Math.max(0, segment.upperBound(maxAge) - segment.lowerBound(minAge));
+	}
+
+	// 인덱스에 들어 있는 회원 수
+	public int size() {
+		int size = 0;
+		for (Segment segment : snapshot.segments) {
+			size += segment.ids.length;
+		}
+		return size;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onMemberChanged(MemberChangedEvent event) {
+		pending.add(event);
+		drain(); // 반환할 때는 이 이벤트가 반영되어 있다 (이 스레드나 먼저 락을 잡은 스레드가 반영)
+	}
+
+	// 목록 전체를 한 번의 반영으로 처리한다. 팀마다 세그먼트를 한 번만 다시 만든다
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onMembersChanged(MembersChangedEvent event) {
+		pending.addAll(event.getChanges());
+		drain();
+	}
+
+	private synchronized void drain() {
+		if (pending.isEmpty()) {
+			return;
+		}
+		Map<Long, TeamChanges> changes = new HashMap<>();
+		MemberChangedEvent event;
+		while ((event = pending.poll()) != null) {
+			long memberId = event.getMemberId();
+			// INSERT도 먼저 뺀다. 같은 회원의 이벤트가 두 번 와도 한 번만 들어간다
+			long previousTeamId = teamByMember.remove(memberId);
+			if (previousTeamId != LongLongMap.ABSENT) {
+				changes.computeIfAbsent(previousTeamId, teamId -> new TeamChanges()).remove(memberId);
+			}
+			if (event.getType() != ChangeType.DELETE && event.getTeamId() != null) {
+				teamByMember.put(memberId, event.getTeamId());
+				changes.computeIfAbsent(event.getTeamId(), teamId -> new TeamChanges()).add(memberId, event.getAge());
+			}
+		}
+
+		Snapshot current = snapshot;
+		SortedMap<Long, Segment> changed = new TreeMap<>();
+		changes.forEach((teamId, teamChanges) -> {
+			Segment segment = current.segment(teamId);
+			changed.put(teamId, teamChanges.applyTo(segment == null ? Segment.EMPTY : segment));
+		});
+		snapshot = current.with(changed);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onMembersBulkChanged(MembersBulkChangedEvent event) {
+		rebuild();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		startupRebuildRunner.run("member age index", this::rebuild);
+	}
+
+	public void rebuild() {
+		readOnlyTransaction.executeWithoutResult(status -> {
+			synchronized (this) {
+				LongBuffer teamIds = new LongBuffer();
+				List<Segment> segments = new ArrayList<>();
+				IntBuffer ages = new IntBuffer();
+				LongBuffer ids = new LongBuffer();
+				teamByMember.clear();
+
+				// 정렬은 DB에 맡기고 순서대로 채운다
+				try (CloseableIterator<Tuple> rows = queryFactory
+					.select(member.team.Id, member.age, member.Id)
+					.from(member)
+					.where(member.team.isNotNull())
+					.orderBy(member.team.Id.asc(), member.age.asc(), member.Id.asc())
+					.iterate()) {
+					while (rows.hasNext()) {
+						Tuple row = rows.next();
+						long teamId = row.get(member.team.Id);
+						if (teamIds.size == 0 || teamIds.last() != teamId) {
+							if (teamIds.size > 0) {
+								segments.add(new Segment(ages.toArray(), ids.toArray()));
+								ages.clear();
+								ids.clear();
+							}
+							teamIds.add(teamId);
+						}
+						ages.add(row.get(member.age));
+						ids.add(row.get(member.Id));
+						teamByMember.put(row.get(member.Id), teamId);
+					}
+				}
+				if (teamIds.size > 0) {
+					segments.add(new Segment(ages.toArray(), ids.toArray()));
+				}
+
+				snapshot = new Snapshot(teamIds.toArray(), segments.toArray(new Segment[0]));
+				log.info("member age index rebuilt: members={}, teams={}", size(), teamIds.size);
+			}
+		});
+	}
+
+	private static class Snapshot {
+
+		static final Snapshot EMPTY = new Snapshot(new long[0], new Segment[0]);
+
+		final long[] teamIds; // 오름차순
+		final Segment[] segments; // teamIds와 같은 순서. 빈 세그먼트는 두지 않는다
+
+		Snapshot(long[] teamIds, Segment[] segments) {
+			this.teamIds = teamIds;
+			this.segments = segments;
+		}
+
+		Segment segment(long teamId) {
+			int index = Arrays.binarySearch(teamIds, teamId);
+			return index >= 0 ? segments[index] : null;
+		}
+
+		// 바뀐 팀의 세그먼트만 교체한 새 스냅샷. 두 정렬된 팀 목록을 병합하고, 빈 세그먼트의 팀은 뺀다
+		Snapshot with(SortedMap<Long, Segment> changed) {
+			LongBuffer newTeamIds = new LongBuffer();
+			List<Segment> newSegments = new ArrayList<>(teamIds.length + changed.size());
+			Iterator<Map.Entry<Long, Segment>> iterator = changed.entrySet().iterator();
+			Map.Entry<Long, Segment> next = iterator.hasNext() ? iterator.next() : null;
+			int i = 0;
+			while (i < teamIds.length || next != null) {
+				long teamId;
+				Segment segment;
+				if (next == null || (i < teamIds.length && teamIds[i] < next.getKey())) {
+					teamId = teamIds[i];
+					segment = segments[i++];
+				} else {
+					teamId = next.getKey();
+					segment = next.getValue();
+					if (i < teamIds.length && teamIds[i] == teamId) {
+						i++; // 기존 세그먼트를 대체한다
+					}
+					next = iterator.hasNext() ? iterator.next() : null;
+				}
+				if (segment.ids.length > 0) {
+					newTeamIds.add(teamId);
+					newSegments.add(segment);
+				}
+			}
+			return new Snapshot(newTeamIds.toArray(), newSegments.toArray(new Segment[0]));
+		}
+	}
+
+	// 한 팀의 회원. (age, id) 오름차순. 만든 뒤에는 바꾸지 않는다
+	private static class Segment {
+
+		static final Segment EMPTY = new Segment(new int[0], NO_IDS);
+
+		final int[] ages;
+		final long[] ids;
+
+		Segment(int[] ages, long[] ids) {
+			this.ages = ages;
+			this.ids = ids;
+		}
+
+		// ages[i] >= age 인 첫 위치
+		int lowerBound(int age) {
+			int low = 0;
+			int high = ages.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (ages[mid] < age) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		// ages[i] > age 인 첫 위치
+		int upperBound(int age) {
+			int low = 0;
+			int high = ages.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (ages[mid] <= age) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+	}
+
+	// 한 번의 반영에서 팀 하나에 생긴 변경
+	private static class TeamChanges {
+
+		final Set<Long> removed = new HashSet<>(); // 기존 세그먼트에서 뺄 회원
+		final Map<Long, Integer> added = new HashMap<>(); // 반영 후 이 팀에 있어야 하는 회원 -> 나이
+
+		void remove(long memberId) {
+			removed.add(memberId);
+			added.remove(memberId);
+		}
+
+		void add(long memberId, int age) {
+			added.put(memberId, age);
+		}
+
+		// 추가분을 (age, id) 순으로 정렬한 뒤, 뺄 회원을 건너뛰며 기존 세그먼트와 병합한다. O(세그먼트 + k log k)
+		Segment applyTo(Segment segment) {
+			int additions = added.size();
+			int[] addAges = new int[additions];
+			long[] addIds = new long[additions];
+			List<Map.Entry<Long, Integer>> sorted = new ArrayList<>(added.entrySet());
+			sorted.sort(Map.Entry.<Long, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+			for (int k = 0; k < additions; k++) {
+				addAges[k] = sorted.get(k).getValue();
+				addIds[k] = sorted.get(k).getKey();
+			}
+
+			int capacity = segment.ids.length + additions;
+			int[] ages = new int[capacity];
+			long[] ids = new long[capacity];
+			int size = 0;
+			int i = 0;
+			int j = 0;
+			while (i < segment.ids.length || j < additions) {
+				if (i < segment.ids.length && removed.contains(segment.ids[i])) {
+					i++;
+					continue;
+				}
+				boolean takeExisting = j == additions || (i < segment.ids.length
+					&& (segment.ages[i] < addAges[j] || (segment.ages[i] == addAges[j] && segment.ids[i] < addIds[j])));
+				if (takeExisting) {
+					ages[size] = segment.ages[i];
+					ids[size++] = segment.ids[i++];
+				} else {
+					ages[size] = addAges[j];
+					ids[size++] = addIds[j++];
+				}
+			}
+			return new Segment(Arrays.copyOf(ages, size), Arrays.copyOf(ids, size));
+		}
+	}
+
+	/**
+	 * 회원 id -> 팀 id. 선형 탐사(linear probing) open addressing 맵
+	 * HashMap<Long, Long>은 회원마다 노드와 Long 두 개를 만들지만, 여기서는 long 두 칸만 쓴다. this 락 안에서만 사용한다
+	 */
+	private static final class LongLongMap {
+
+		static final long ABSENT = Long.MIN_VALUE; // 없는 키의 값
+		private static final long FREE = Long.MIN_VALUE; // 빈 칸의 키. 회원 id는 양수다
+		private static final int INITIAL_CAPACITY = 16;
+
+		long[] keys;
+		long[] values;
+		int size;
+		int mask;
+
+		LongLongMap() {
+			allocate(INITIAL_CAPACITY);
+		}
+
+		void put(long key, long value) {
+			if ((size + 1) * 4L > keys.length * 3L) { // load factor 0.75
+				grow();
+			}
+			int i = slot(key);
+			while (keys[i] != FREE) {
+				if (keys[i] == key) {
+					values[i] = value;
+					return;
+				}
+				i = (i + 1) & mask;
+			}
+			keys[i] = key;
+			values[i] = value;
+			size++;
+		}
+
+		// 지운 값. 없으면 ABSENT
+		long remove(long key) {
+			int i = slot(key);
+			while (keys[i] != FREE) {
+				if (keys[i] == key) {
+					long previous = values[i];
+					shiftBack(i);
+					size--;
+					return previous;
+				}
+				i = (i + 1) & mask;
+			}
+			return ABSENT;
+		}
+
+		void clear() {
+			allocate(INITIAL_CAPACITY);
+		}
+
+		// 빈 칸(gap) 뒤의 항목 중 gap 자리로 와도 탐색이 끊기지 않는 것을 당겨 온다 (tombstone 없이 삭제)
+		private void shiftBack(int gap) {
+			int i = gap;
+			while (true) {
+				i = (i + 1) & mask;
+				if (keys[i] == FREE) {
+					break;
+				}
+				int home = slot(keys[i]);
+				if (((i - home) & mask) >= ((i - gap) & mask)) {
+					keys[gap] = keys[i];
+					values[gap] = values[i];
+					gap = i;
+				}
+			}
+			keys[gap] = FREE;
+		}
+
+		private int slot(long key) {
+			long hash = key * 0x9E3779B97F4A7C15L;
+			return (int) (hash ^ (hash >>> 32)) & mask;
+		}
+
+		private void grow() {
+			long[] oldKeys = keys;
+			long[] oldValues = values;
+			allocate(oldKeys.length * 2);
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldKeys[i] != FREE) {
+					put(oldKeys[i], oldValues[i]);
+				}
+			}
+		}
+
+		private void allocate(int capacity) {
+			keys = new long[capacity];
+			Arrays.fill(keys, FREE);
+			values = new long[capacity];
+			mask = capacity - 1;
+			size = 0;
+		}
+	}
+
+	// rebuild 중에 크기를 모르는 primitive 배열을 채우기 위한 버퍼
+	private static class IntBuffer {
+
+		int[] values = new int[16];
+		int size;
+
+		void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		int[] toArray() {
+			return Arrays.copyOf(values, size);
+		}
+
+		void clear() {
+			size = 0;
+		}
+	}
+
+	private static class LongBuffer {
+
+		long[] values = new long[16];
+		int size;
+
+		void add(long value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		long last() {
+			return values[size - 1];
+		}
+
+		long[] toArray() {
+			return Arrays.copyOf(values, size);
+		}
+
+		void clear() {
+			size = 0;
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package study.querydsl.service;
+
+import static study.querydsl.entity.QTeam.team;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.repository.MemberQueryRepository;
+
+/**
+ * /api/members, /api/teams/{teamId}/members 응답 작성
+ * 페이지 결과를 리스트나 Page로 만들지 않고 iterate()로 읽으면서 JsonGenerator로 바로 쓴다.
+ * 응답 형식: {"page":0,"size":20,"content":[{memberId, username, age, teamId}, ...],"hasNext":true}
+ * count 쿼리는 실행하지 않는다. 다음 페이지 여부는 size + 1건을 읽어서 판단한다.
+ */
+@Service
+public class MemberApiService {
+
+	private final MemberQueryRepository memberQueryRepository;
+	private final JPAQueryFactory queryFactory;
+	private final TransactionTemplate readOnlyTransaction;
+	private final JsonFactory jsonFactory;
+
+	public MemberApiService(MemberQueryRepository memberQueryRepository, JPAQueryFactory queryFactory,
+		PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+		this.memberQueryRepository = memberQueryRepository;
+		this.queryFactory = queryFactory;
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+		this.jsonFactory = objectMapper.getFactory();
+	}
+
+	public boolean teamExists(Long teamId) {
+		return readOnlyTransaction.execute(status -> queryFactory
+			.selectOne()
+			.from(team)
+			.where(team.Id.eq(teamId))
+			.fetchFirst() != null);
+	}
+
+	/**
+	 * @return 출력한 회원 수
+	 */
+	public int writeSearch(MemberSearchCondition condition, Pageable pageable, OutputStream out) {
+		return writePage(pageable, out, () -> memberQueryRepository.iterate(condition, pageable));
+	}
+
+	public int writeTeamMembers(Long teamId, Pageable pageable, OutputStream out) {
+		return writePage(pageable, out, () -> memberQueryRepository.iterateByTeamId(teamId, pageable));
+	}
+
+	// 스트리밍 응답은 비동기 스레드에서 실행되므로 트랜잭션을 직접 연다 (MemberExportService와 같음)
+	private int writePage(Pageable pageable, OutputStream out, Supplier<CloseableIterator<MemberDto>> query) {
+		return readOnlyTransaction.execute(status -> {
+			try (JsonGenerator generator = jsonFactory.createGenerator(out);
+				CloseableIterator<MemberDto> rows = query.get()) {
+				generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+				generator.writeStartObject();
+				generator.writeNumberField("page", pageable.getPageNumber());
+				generator.writeNumberField("size", pageable.getPageSize());
+				generator.writeArrayFieldStart("content");
+				int count = 0;
+				while (count < pageable.getPageSize() && rows.hasNext()) {
+					writeMember(generator, rows.next());
+					count++;
+				}
+				generator.writeEndArray();
+				generator.writeBooleanField("hasNext", rows.hasNext());
+				generator.writeEndObject();
+				return count;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e); // 클라이언트 연결 종료 등
+			}
+		});
+	}
+
+	// ObjectMapper로 DTO를 직렬화하지 않고 필드를 직접 쓴다. 필드 이름은 MemberDto와 같다
+	private static void writeMember(JsonGenerator generator, MemberDto row) throws IOException {
+		generator.writeStartObject();
+		generator.writeNumberField("memberId", row.getMemberId());
+		generator.writeStringField("username", row.getUsername());
+		generator.writeNumberField("age", row.getAge());
+		if (row.getTeamId() == null) {
+			generator.writeNullField("teamId");
+		} else {
+			generator.writeNumberField("teamId", row.getTeamId());
+		}
+		generator.writeEndObject();
+	}
+}
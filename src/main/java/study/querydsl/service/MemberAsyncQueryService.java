@@ -0,0 +1,56 @@
+package study.querydsl.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.repository.MemberQueryRepository;
+import study.querydsl.support.JpaExecutor;
+
+/**
+ * 회원 조회를 JpaExecutor에서 실행하고 CompletableFuture로 돌려준다
+ * - executor가 가득 차면 RejectedExecutionException을 바로 던진다 (호출한 스레드에서)
+ * - querydsl.async.timeout이 지나면 TimeoutException으로 완료된다. 같은 값을 트랜잭션 timeout으로도 지정해서
+ *   DB에서 실행 중인 쿼리도 취소되도록 한다
+ */
+@Service
+public class MemberAsyncQueryService {
+
+	private final MemberQueryRepository memberQueryRepository;
+	private final JpaExecutor jpaExecutor;
+	private final TransactionTemplate readOnlyTransaction;
+	private final Duration timeout;
+
+	public MemberAsyncQueryService(MemberQueryRepository memberQueryRepository, JpaExecutor jpaExecutor,
+		PlatformTransactionManager transactionManager,
+		@Value("${querydsl.async.timeout:5s}") Duration timeout) {
+		this.memberQueryRepository = memberQueryRepository;
+		this.jpaExecutor = jpaExecutor;
+		this.timeout = timeout;
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+		this.readOnlyTransaction.setTimeout((int) Math.max(1, timeout.toSeconds()));
+	}
+
+	public CompletableFuture<List<MemberDto>> search(MemberSearchCondition condition) {
+		return submit(() -> memberQueryRepository.search(condition));
+	}
+
+	public CompletableFuture<Page<MemberDto>> search(MemberSearchCondition condition, Pageable pageable) {
+		return submit(() -> memberQueryRepository.search(condition, pageable));
+	}
+
+	private <T> CompletableFuture<T> submit(Supplier<T> query) {
+		return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> query.get()), jpaExecutor::execute)
+			.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+	}
+}
@@ -0,0 +1,108 @@
+package study.querydsl.service;
+
+import static study.querydsl.entity.QMember.member;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import javax.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Team;
+import study.querydsl.entity.listener.MemberEntityListener;
+import study.querydsl.event.MembersBulkChangedEvent;
+
+/**
+ * 대량 등록/수정/삭제
+ * - 등록: hibernate.jdbc.batch_size 단위로 flush/clear 해서 JDBC batch insert로 보내고 영속성 컨텍스트가 커지지 않게 한다
+ *   row마다 이벤트를 발행하지 않고 끝난 뒤 MembersBulkChangedEvent 하나만 발행한다
+ * - 수정/삭제: Querydsl 벌크 연산(JPAUpdateClause/JPADeleteClause). 실행 전 flush, 실행 후 clear로 영속성 컨텍스트와 DB를 맞춘다
+ *   엔티티 리스너를 거치지 않으므로 MembersBulkChangedEvent를 발행한다. @Version도 직접 올린다
+ */
+@Service
+@Transactional
+public class MemberBulkService {
+
+	private final EntityManager em;
+	private final JPAQueryFactory queryFactory;
+	private final ApplicationEventPublisher publisher;
+	private final int batchSize;
+
+	public MemberBulkService(EntityManager em, JPAQueryFactory queryFactory, ApplicationEventPublisher publisher,
+		@Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}") int batchSize) {
+		this.em = em;
+		this.queryFactory = queryFactory;
+		this.publisher = publisher;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * 엔티티를 batch 단위로 저장한다.
+	 * 주의: clear 이후 이전 batch의 엔티티는 준영속 상태가 된다.
+	 * 대량의 Member를 넣을 때는 Team.members가 계속 커지지 않도록 setTeam(em.getReference(...))으로 연관관계 주인만 설정하자.
+	 * @return 저장한 엔티티 수
+	 */
+	public long persistAll(Iterable<?> entities) {
+		em.flush(); // 이전에 쌓인 변경은 평소처럼 회원별 이벤트를 발행한다
+		long count = MemberEntityListener.withoutEvents(() -> {
+			long persisted = 0;
+			for (Object entity : entities) {
+				em.persist(entity);
+				if (++persisted % batchSize == 0) {
+					em.flush();
+					em.clear();
+				}
+			}
+			em.flush();
+			return persisted;
+		});
+		em.clear();
+		if (count > 0) {
+			publisher.publishEvent(new MembersBulkChangedEvent());
+		}
+		return count;
+	}
+
+	/**
+	 * 조건에 맞는 회원의 나이를 amount만큼 더한다.
+	 * JPQL 벌크 연산은 join을 쓸 수 없으므로 condition에 member.team.name 같은 묵시적 조인 대신 id/서브쿼리를 사용한다.
+	 * @return 수정된 row 수
+	 */
+	public long addAge(Predicate condition, int amount) {
+		em.flush(); // 아직 반영되지 않은 변경을 먼저 DB에 보낸다
+		long count = queryFactory
+			.update(member)
+			.set(member.age, member.age.add(amount))
+			.set(member.version, member.version.add(1L)) // 동시에 이 회원을 수정 중인 트랜잭션이 충돌을 감지하도록 한다
+			.where(condition)
+			.execute();
+		em.clear(); // 벌크 연산은 영속성 컨텍스트를 거치지 않으므로 남아 있는 엔티티를 비워 다시 조회하게 한다
+		publisher.publishEvent(new MembersBulkChangedEvent());
+		return count;
+	}
+
+	public long changeTeam(Predicate condition, Team team) {
+		em.flush();
+		long count = queryFactory
+			.update(member)
+			.set(member.team, team)
+			.set(member.version, member.version.add(1L))
+			.where(condition)
+			.execute();
+		em.clear();
+		publisher.publishEvent(new MembersBulkChangedEvent());
+		return count;
+	}
+
+	public long delete(Predicate condition) {
+		em.flush();
+		long count = queryFactory
+			.delete(member)
+			.where(condition)
+			.execute();
+		em.clear();
+		publisher.publishEvent(new MembersBulkChangedEvent());
+		return count;
+	}
+}
@@ -0,0 +1,193 @@
+package study.querydsl.service;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import javax.persistence.EntityManager;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.repository.MemberSqlRepository;
+
+/**
+ * 회원 전체 export
+ * fetch()로 전체 결과를 리스트에 담지 않고, iterate()(Hibernate forward-only ScrollableResults)로 한 건씩 읽어 바로 출력한다.
+ * - JDBC fetch size 만큼씩 DB에서 가져온다 (querydsl.export.fetch-size)
+ * - clear-interval 건마다 EntityManager를 비우고 출력 버퍼를 내보낸다 (querydsl.export.clear-interval)
+ * 스트리밍 응답은 요청 스레드가 아닌 비동기 스레드에서 실행되므로 트랜잭션을 직접 연다.
+ * querydsl.export.engine=sql 이면 JPA 대신 Querydsl SQL(MemberSqlRepository)로 읽는다. 영속성 컨텍스트를 거치지 않는다
+ */
+@Service
+public class MemberExportService {
+
+	private final JPAQueryFactory queryFactory;
+	private final MemberSqlRepository memberSqlRepository;
+	private final EntityManager em;
+	private final TransactionTemplate readOnlyTransaction;
+	private final ObjectWriter jsonWriter;
+	private final int fetchSize;
+	private final int clearInterval;
+	private final boolean sqlEngine;
+
+	public MemberExportService(JPAQueryFactory queryFactory, MemberSqlRepository memberSqlRepository, EntityManager em,
+		PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+		@Value("${querydsl.export.fetch-size:1000}") int fetchSize,
+		@Value("${querydsl.export.clear-interval:10000}") int clearInterval,
+		@Value("${querydsl.export.engine:jpa}") String engine) {
+		this.queryFactory = queryFactory;
+		this.memberSqlRepository = memberSqlRepository;
+		this.em = em;
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+		// 한 건마다 flush하면 소켓 write가 row 수만큼 발생한다
+		this.jsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		this.fetchSize = fetchSize;
+		this.clearInterval = clearInterval;
+		this.sqlEngine = "sql".equalsIgnoreCase(engine);
+	}
+
+	/**
+	 * 한 줄에 JSON 하나(NDJSON)로 출력한다.
+	 * @return 출력한 row 수
+	 */
+	public long exportNdjson(OutputStream out) {
+		try {
+			JsonGenerator generator = jsonWriter.getFactory().createGenerator(out);
+			generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+			generator.setRootValueSeparator(new SerializedString("\n"));
+			return export(new RowWriter() {
+				@Override
+				public void write(MemberTeamDto row) throws IOException {
+					jsonWriter.writeValue(generator, row);
+				}
+
+				@Override
+				public void flush() throws IOException {
+					generator.flush();
+				}
+
+				@Override
+				public void finish(long rows) throws IOException {
+					if (rows > 0) {
+						generator.writeRaw('\n');
+					}
+					generator.close();
+				}
+			});
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * 헤더를 포함한 CSV로 출력한다.
+	 * @return 출력한 row 수 (헤더 제외)
+	 */
+	public long exportCsv(OutputStream out) {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		return export(new RowWriter() {
+			@Override
+			public void start() throws IOException {
+				writer.write("memberId,username,age,teamId,teamName\n");
+			}
+
+			@Override
+			public void write(MemberTeamDto row) throws IOException {
+				writer.write(String.valueOf(row.getMemberId()));
+				writer.write(',');
+				writer.write(csv(row.getUsername()));
+				writer.write(',');
+				writer.write(Integer.toString(row.getAge()));
+				writer.write(',');
+				writer.write(row.getTeamId() == null ? "" : row.getTeamId().toString());
+				writer.write(',');
+				writer.write(csv(row.getTeamName()));
+				writer.write('\n');
+			}
+
+			@Override
+			public void flush() throws IOException {
+				writer.flush();
+			}
+
+			@Override
+			public void finish(long rows) throws IOException {
+				writer.flush();
+			}
+		});
+	}
+
+	private long export(RowWriter writer) {
+		return readOnlyTransaction.execute(status -> {
+			try (CloseableIterator<MemberTeamDto> rows = sqlEngine
+				? memberSqlRepository.iterateMemberTeams(fetchSize)
+				: iterateJpa()) {
+
+				writer.start();
+				long count = 0;
+				while (rows.hasNext()) {
+					writer.write(rows.next());
+					if (++count % clearInterval == 0) {
+						em.clear(); // 영속성 컨텍스트가 계속 커지지 않도록 비운다
+						writer.flush();
+					}
+				}
+				writer.finish(count);
+				return count;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e); // 클라이언트 연결 종료 등
+			}
+		});
+	}
+
+	private CloseableIterator<MemberTeamDto> iterateJpa() {
+		return queryFactory
+			.select(new QMemberTeamDto(member.Id, member.username, member.age, team.Id, team.name))
+			.from(member)
+			.leftJoin(member.team, team)
+			.orderBy(member.Id.asc())
+			.setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+			.iterate(); // Hibernate에서는 ScrollMode.FORWARD_ONLY로 스크롤한다
+	}
+
+	// CSV 값에 구분자/따옴표/줄바꿈이 있으면 따옴표로 감싼다
+	private static String csv(String value) {
+		if (value == null) {
+			return "";
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+
+	private interface RowWriter {
+
+		default void start() throws IOException {
+		}
+
+		void write(MemberTeamDto row) throws IOException;
+
+		void flush() throws IOException;
+
+		void finish(long rows) throws IOException;
+	}
+}
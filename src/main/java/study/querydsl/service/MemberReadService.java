@@ -0,0 +1,68 @@
+package study.querydsl.service;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.List;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberTeamDto;
+
+/**
+ * 조회 전용 서비스
+ * 엔티티 대신 DTO로 바로 프로젝션해서 읽기 경로의 엔티티 생성(hydration) 비용을 없앤다.
+ */
+@Service
+@Transactional(readOnly = true)
+public class MemberReadService {
+
+	private final JPAQueryFactory queryFactory;
+
+	public MemberReadService(JPAQueryFactory queryFactory) {
+		this.queryFactory = queryFactory;
+	}
+
+	public List<MemberTeamDto> findMemberTeams() {
+		return selectMemberTeam()
+			.orderBy(member.Id.asc())
+			.fetch();
+	}
+
+	public List<MemberTeamDto> findMemberTeamsByTeamName(String teamName) {
+		return selectMemberTeam()
+			.where(team.name.eq(teamName))
+			.orderBy(member.Id.asc())
+			.fetch();
+	}
+
+	public MemberTeamDto findMemberTeam(Long memberId) {
+		return selectMemberTeam()
+			.where(member.Id.eq(memberId))
+			.fetchOne();
+	}
+
+	/**
+	 * @QueryProjection을 사용할 수 없는 경우(외부 DTO 등)를 위한 Projections.constructor 버전
+	 * 생성자 파라미터 타입/순서를 런타임에 맞추기 때문에 컴파일 시점 검증은 되지 않는다.
+	 */
+	public List<MemberTeamDto> findMemberTeamsByConstructor() {
+		return queryFactory
+			.select(Projections.constructor(MemberTeamDto.class,
+				member.Id, member.username, member.age, team.Id, team.name))
+			.from(member)
+			.leftJoin(member.team, team)
+			.orderBy(member.Id.asc())
+			.fetch();
+	}
+
+	private JPAQuery<MemberTeamDto> selectMemberTeam() {
+		return queryFactory
+			.select(new QMemberTeamDto(member.Id, member.username, member.age, team.Id, team.name))
+			.from(member)
+			.leftJoin(member.team, team); // 팀이 없는 회원도 조회
+	}
+}
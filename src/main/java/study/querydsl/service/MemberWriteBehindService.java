@@ -0,0 +1,260 @@
+package study.querydsl.service;
+
+import static study.querydsl.entity.QMember.member;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.dml.SQLUpdateClause;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.event.ChangeType;
+import study.querydsl.event.MemberChangedEvent;
+import study.querydsl.event.MembersChangedEvent;
+import study.querydsl.sql.SMember;
+
+/**
+ * 회원 나이 변경을 메모리에 모았다가 주기적으로 한 번에 반영한다. (write-behind)
+ * - 같은 회원의 변경은 하나로 합친다. (set 이후 add는 set 값에 더하고, add끼리는 더한다)
+ * - flush는 같은 값으로 바뀌는 회원끼리 묶어 Querydsl SQL update(SQLUpdateClause) 한 번으로 보낸다. @Version도 올린다
+ *   JPQL 벌크 update는 Hibernate가 member 테이블에 걸린 2차 캐시(Team.members 컬렉션 영역 전체)를 비우므로 쓰지 않는다.
+ *   나이/버전만 바꾸므로 팀 소속(컬렉션 캐시의 회원 id 목록)과 팀 엔티티 캐시는 그대로 유효하다
+ *   커밋 이후 통계/인덱스/ETag 버전에 반영되도록 바뀐 회원 목록을 MembersChangedEvent 하나로 발행한다
+ * - 버퍼에 담을 수 있는 회원 수(querydsl.write-behind.max-pending)를 넘으면 호출한 스레드에서 바로 flush한다
+ * - 종료 시(@PreDestroy) 남은 변경을 flush한다. 프로세스가 비정상 종료되면 flush되지 않은 변경은 잃어버린다
+ * - getAge()는 같은 노드의 버퍼를 반영한 값을 돌려준다. 다른 노드나 직접 조회한 엔티티에는 flush 전까지 보이지 않는다
+ * 변경 메서드는 트랜잭션 밖에서 호출한다. 트랜잭션 안에서 같은 회원을 수정 중이면 flush의 update가 그 락을 기다린다.
+ */
+@Slf4j
+@Service
+public class MemberWriteBehindService {
+
+	// IN 절에 넣는 id 수
+	private static final int IN_CHUNK = 1000;
+
+	private final JPAQueryFactory queryFactory;
+	private final SQLQueryFactory sqlQueryFactory;
+	private final ApplicationEventPublisher publisher;
+	private final TransactionTemplate writeTransaction;
+	private final TransactionTemplate readOnlyTransaction;
+	private final int maxPending;
+
+	private final ConcurrentHashMap<Long, Pending> buffer = new ConcurrentHashMap<>();
+	private final ReentrantLock flushLock = new ReentrantLock();
+	// flush 시작/끝에 1씩 올린다. 홀수면 flush 중이다 (버퍼에서 빠졌지만 아직 커밋되지 않은 변경이 있다)
+	private final AtomicLong flushSequence = new AtomicLong();
+
+	private final LongAdder updates = new LongAdder();
+	private final LongAdder flushedMembers = new LongAdder();
+	private final LongAdder statements = new LongAdder();
+	private final LongAdder readbacks = new LongAdder();
+
+	public MemberWriteBehindService(JPAQueryFactory queryFactory, SQLQueryFactory sqlQueryFactory,
+		ApplicationEventPublisher publisher, PlatformTransactionManager transactionManager,
+		@Value("${querydsl.write-behind.max-pending:100000}") int maxPending) {
+		this.queryFactory = queryFactory;
+		this.sqlQueryFactory = sqlQueryFactory;
+		this.publisher = publisher;
+		this.writeTransaction = new TransactionTemplate(transactionManager);
+		// 호출한 쪽 트랜잭션과 무관하게 커밋한다 (버퍼가 가득 차서 호출 스레드에서 flush하는 경우)
+		this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+		this.maxPending = maxPending;
+	}
+
+	public void addAge(Long memberId, int amount) {
+		enqueue(memberId, new Pending(null, amount));
+	}
+
+	public void setAge(Long memberId, int age) {
+		enqueue(memberId, new Pending(age, 0));
+	}
+
+	/**
+	 * DB 값에 이 노드에서 아직 flush되지 않은 변경을 반영한 나이. 회원이 없으면 null
+	 */
+	public Integer getAge(Long memberId) {
+		while (true) {
+			long sequence = flushSequence.get();
+			if ((sequence & 1) == 1) {
+				// 진행 중인 flush가 끝날 때까지 기다린다. 그 사이에는 DB와 버퍼 어느 쪽에도 없는 변경이 있다
+				flushLock.lock();
+				flushLock.unlock();
+				continue;
+			}
+			Integer age = readOnlyTransaction.execute(status -> queryFactory
+				.select(member.age)
+				.from(member)
+				.where(member.Id.eq(memberId))
+				.fetchOne());
+			Pending pending = buffer.get(memberId);
+			if (flushSequence.get() == sequence) {
+				return age == null || pending == null ? age : pending.applyTo(age);
+			}
+		}
+	}
+
+	/**
+	 * 모인 변경을 DB에 반영한다.
+	 * @return 반영한 회원 수 (이미 삭제된 회원 포함)
+	 */
+	@Scheduled(fixedDelayString = "${querydsl.write-behind.flush-interval-millis:1000}")
+	public int flush() {
+		flushLock.lock();
+		try {
+			if (buffer.isEmpty()) {
+				return 0;
+			}
+			flushSequence.incrementAndGet();
+			try {
+				Map<Long, Pending> drained = new HashMap<>();
+				for (Long memberId : buffer.keySet()) {
+					Pending pending = buffer.remove(memberId);
+					if (pending != null) {
+						drained.put(memberId, pending);
+					}
+				}
+				try {
+					writeTransaction.executeWithoutResult(status -> write(drained));
+				} catch (RuntimeException e) {
+					// 다음 flush에서 다시 시도한다. 그 사이에 들어온 변경은 이번 변경 뒤에 적용된다
+					drained.forEach((memberId, pending) -> buffer.merge(memberId, pending, (later, earlier) -> earlier.then(later)));
+					log.warn("write-behind flush failed: members={}", drained.size(), e);
+					throw e;
+				}
+				flushedMembers.add(drained.size());
+				return drained.size();
+			} finally {
+				flushSequence.incrementAndGet();
+			}
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		int flushed = flush();
+		log.info("write-behind flushed on shutdown: members={}", flushed);
+	}
+
+	// 버퍼에 있는 회원 수
+	public int getPending() {
+		return buffer.size();
+	}
+
+	// 받은 변경 수. flush 없이 매번 update 했다면 이만큼 update를 실행했을 것이다
+	public long getUpdates() {
+		return updates.sum();
+	}
+
+	public long getFlushedMembers() {
+		return flushedMembers.sum();
+	}
+
+	// flush에서 실행한 update 문 수
+	public long getStatements() {
+		return statements.sum();
+	}
+
+	// flush에서 변경 이벤트를 만들기 위해 실행한 select 문 수. getStatements()에는 포함하지 않는다
+	public long getReadbacks() {
+		return readbacks.sum();
+	}
+
+	private void enqueue(Long memberId, Pending update) {
+		if (buffer.size() >= maxPending && !buffer.containsKey(memberId)) {
+			flush(); // 가득 차면 호출한 스레드에서 바로 내보낸다 (backpressure)
+		}
+		buffer.merge(memberId, update, Pending::then);
+		updates.increment();
+	}
+
+	private void write(Map<Long, Pending> drained) {
+		Map<Integer, List<Long>> byAge = new HashMap<>(); // age = ?
+		Map<Integer, List<Long>> byAmount = new HashMap<>(); // age = age + ?
+		drained.forEach((memberId, pending) -> {
+			if (pending.age != null) {
+				byAge.computeIfAbsent(pending.age + pending.amount, key -> new ArrayList<>()).add(memberId);
+			} else if (pending.amount != 0) {
+				byAmount.computeIfAbsent(pending.amount, key -> new ArrayList<>()).add(memberId);
+			}
+		});
+		SMember m = SMember.member;
+		byAge.forEach((age, memberIds) ->
+			execute(memberIds, () -> sqlQueryFactory.update(m).set(m.age, age)));
+		byAmount.forEach((amount, memberIds) ->
+			execute(memberIds, () -> sqlQueryFactory.update(m).set(m.age, m.age.add(amount))));
+		publishChanges(new ArrayList<>(drained.keySet()));
+	}
+
+	// 엔티티 리스너를 거치지 않으므로 바뀐 값을 다시 읽어 변경 목록을 이벤트 하나로 발행한다
+	// MembersBulkChangedEvent를 쓰면 flush마다 통계/인덱스를 전부 다시 만든다
+	private void publishChanges(List<Long> memberIds) {
+		List<MemberChangedEvent> changes = new ArrayList<>(memberIds.size());
+		for (int from = 0; from < memberIds.size(); from += IN_CHUNK) {
+			List<Tuple> rows = queryFactory
+				.select(member.Id, member.team.Id, member.age)
+				.from(member)
+				.where(member.Id.in(memberIds.subList(from, Math.min(from + IN_CHUNK, memberIds.size()))))
+				.fetch();
+			readbacks.increment();
+			for (Tuple row : rows) {
+				changes.add(new MemberChangedEvent(
+					ChangeType.UPDATE, row.get(member.Id), row.get(member.team.Id), row.get(member.age)));
+			}
+		}
+		if (!changes.isEmpty()) {
+			publisher.publishEvent(new MembersChangedEvent(changes));
+		}
+	}
+
+	// 같은 트랜잭션의 커넥션으로 실행한다 (SpringConnectionProvider). Hibernate를 거치지 않으므로 2차 캐시를 건드리지 않는다
+	private void execute(List<Long> memberIds, Supplier<SQLUpdateClause> update) {
+		SMember m = SMember.member;
+		for (int from = 0; from < memberIds.size(); from += IN_CHUNK) {
+			update.get()
+				.set(m.version, m.version.add(1L)) // 동시에 엔티티로 수정 중인 트랜잭션이 충돌을 감지하도록 한다
+				.where(m.memberId.in(memberIds.subList(from, Math.min(from + IN_CHUNK, memberIds.size()))))
+				.execute();
+			statements.increment();
+		}
+	}
+
+	// 한 회원에 대해 모인 변경. age가 있으면 age + amount로 바꾸고, 없으면 현재 나이에 amount를 더한다
+	private static final class Pending {
+
+		final Integer age;
+		final int amount;
+
+		Pending(Integer age, int amount) {
+			this.age = age;
+			this.amount = amount;
+		}
+
+		Pending then(Pending later) {
+			return later.age != null ? later : new Pending(age, amount + later.amount);
+		}
+
+		int applyTo(int current) {
+			return (age != null ? age : current) + amount;
+		}
+	}
+}
@@ -0,0 +1,150 @@
+package study.querydsl.service;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import study.querydsl.dto.AgeStats;
+import study.querydsl.support.MeteredJPAQueryFactory;
+import study.querydsl.support.QueryMetrics;
+
+/**
+ * 팀 이름별 회원 나이 집계 리포트 (QuerydslBasicTest.group()과 같은 결과)
+ * - groupByTeamName(): group by 쿼리 한 번
+ * - groupByTeamNameParallel(): member id 범위를 나눠 구간마다 group by를 병렬로 실행하고 부분 집계를 합친다
+ * 병렬 실행은 구간마다 EntityManagerFactory에서 새 EntityManager(= 별도 커넥션)를 연다.
+ * 동시에 쓰는 커넥션 수는 querydsl.report.parallelism을 넘지 않으므로 커넥션 풀보다 작게 잡는다.
+ */
+@Service
+public class TeamAgeReportService {
+
+	private final EntityManagerFactory emf;
+	private final QueryMetrics queryMetrics;
+	private final ForkJoinPool pool;
+
+	public TeamAgeReportService(EntityManagerFactory emf, QueryMetrics queryMetrics,
+		@Value("${querydsl.report.parallelism:0}") int parallelism) {
+		this.emf = emf;
+		this.queryMetrics = queryMetrics;
+		// 0이면 코어 수와 커넥션 풀 기본 크기(10) 중 작은 값
+		this.pool = new ForkJoinPool(parallelism > 0
+			? parallelism : Math.min(Runtime.getRuntime().availableProcessors(), 10));
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	public Map<String, AgeStats> groupByTeamName() {
+		return withEntityManager(queryFactory -> aggregate(queryFactory, null, null));
+	}
+
+	/**
+	 * @param partitions 나눌 구간 수. 보통 getParallelism()과 같게 준다
+	 */
+	public Map<String, AgeStats> groupByTeamNameParallel(int partitions) {
+		Tuple range = withEntityManager(queryFactory -> queryFactory
+			.select(member.Id.min(), member.Id.max())
+			.from(member)
+			.fetchOne());
+		Long minId = range.get(0, Long.class);
+		Long maxId = range.get(1, Long.class);
+		if (minId == null) {
+			return new HashMap<>();
+		}
+		long span = maxId - minId + 1;
+		int count = (int) Math.max(1, Math.min(partitions, span));
+		return pool.invoke(new PartitionTask(minId, span, 0, count, count));
+	}
+
+	// [from, to] 구간의 group by. 범위가 없으면 전체
+	private Map<String, AgeStats> aggregate(JPAQueryFactory queryFactory, Long from, Long to) {
+		List<Tuple> rows = queryFactory
+			.select(team.name, member.count(), member.age.sum(), member.age.min(), member.age.max())
+			.from(member)
+			.join(member.team, team)
+			.where(from == null ? null : member.Id.between(from, to))
+			.groupBy(team.name)
+			.fetch();
+		Map<String, AgeStats> result = new HashMap<>();
+		for (Tuple row : rows) {
+			// JPQL의 sum(int)은 Long을 반환하므로 Number로 꺼낸다
+			result.put(row.get(team.name), new AgeStats(
+				row.get(1, Number.class).longValue(),
+				row.get(2, Number.class).longValue(),
+				row.get(3, Number.class).intValue(),
+				row.get(4, Number.class).intValue()));
+		}
+		return result;
+	}
+
+	private <T> T withEntityManager(Function<JPAQueryFactory, T> work) {
+		EntityManager em = emf.createEntityManager();
+		try {
+			em.getTransaction().begin();
+			try {
+				return work.apply(new MeteredJPAQueryFactory(em, queryMetrics));
+			} finally {
+				em.getTransaction().rollback(); // 조회만 한다
+			}
+		} finally {
+			em.close();
+		}
+	}
+
+	private static Map<String, AgeStats> merge(Map<String, AgeStats> left, Map<String, AgeStats> right) {
+		right.forEach((name, stats) -> left.merge(name, stats, AgeStats::merge));
+		return left;
+	}
+
+	/**
+	 * 구간 [first, last) 를 반씩 나눠서 fork 한다. 구간 하나는 id 범위 하나에 대응한다
+	 */
+	private class PartitionTask extends RecursiveTask<Map<String, AgeStats>> {
+
+		private final long minId;
+		private final long span;
+		private final int first;
+		private final int last;
+		private final int partitions;
+
+		PartitionTask(long minId, long span, int first, int last, int partitions) {
+			this.minId = minId;
+			this.span = span;
+			this.first = first;
+			this.last = last;
+			this.partitions = partitions;
+		}
+
+		@Override
+		protected Map<String, AgeStats> compute() {
+			if (last - first == 1) {
+				long from = minId + span * first / partitions;
+				long to = minId + span * (first + 1) / partitions - 1;
+				return withEntityManager(queryFactory -> aggregate(queryFactory, from, to));
+			}
+			int middle = (first + last) >>> 1;
+			PartitionTask right = new PartitionTask(minId, span, middle, last, partitions);
+			right.fork();
+			Map<String, AgeStats> left = new PartitionTask(minId, span, first, middle, partitions).compute();
+			return merge(left, right.join());
+		}
+	}
+}
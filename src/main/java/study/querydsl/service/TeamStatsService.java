@@ -0,0 +1,324 @@
+package study.querydsl.service;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.AgeStats;
+import study.querydsl.event.ChangeType;
+import study.querydsl.event.MemberChangedEvent;
+import study.querydsl.event.MembersBulkChangedEvent;
+import study.querydsl.event.MembersChangedEvent;
+import study.querydsl.event.TeamChangedEvent;
+import study.querydsl.support.StartupRebuildRunner;
+
+/**
+ * 팀별 회원 나이 집계(count/sum/avg/max/min)를 메모리에서 증분 관리한다.
+ * QuerydslBasicTest.aggregation()/group()과 같은 값을 매번 전체 스캔하지 않고 O(1)로 조회한다.
+ * - 엔티티 리스너가 발행한 이벤트를 커밋 이후에만 반영한다 (롤백된 변경은 반영되지 않음)
+ * - 벌크 연산 이후나 애플리케이션 시작 시에는 DB에서 다시 만든다
+ * - verify()로 Querydsl 집계 쿼리 결과와 비교할 수 있다
+ */
+@Slf4j
+@Service
+public class TeamStatsService {
+
+	private final JPAQueryFactory queryFactory;
+	private final TransactionTemplate readOnlyTransaction;
+	private final StartupRebuildRunner startupRebuildRunner;
+
+	// 아래 상태는 모두 this 락으로 보호한다. 조회용 스냅샷만 락 없이 읽는다
+	private final Map<Long, MemberState> members = new HashMap<>();
+	private final Map<Long, Aggregate> teams = new HashMap<>(); // teamId -> 집계
+	private final Map<Long, String> teamNames = new HashMap<>();
+	private final Aggregate total = new Aggregate();
+
+	private final Map<String, AgeStats> snapshotByTeamName = new ConcurrentHashMap<>();
+	private volatile AgeStats totalSnapshot = AgeStats.EMPTY;
+
+	public TeamStatsService(JPAQueryFactory queryFactory, PlatformTransactionManager transactionManager,
+		StartupRebuildRunner startupRebuildRunner) {
+		this.queryFactory = queryFactory;
+		this.startupRebuildRunner = startupRebuildRunner;
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+		// 커밋 이후(afterCommit) 이벤트 처리 중에도 호출되므로 끝난 트랜잭션에 참여하지 않도록 새 트랜잭션을 연다
+		this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	// 전체 회원 집계 (팀이 없는 회원 포함)
+	public AgeStats getTotal() {
+		return totalSnapshot;
+	}
+
+	// team.name으로 group by 한 집계. 해당 이름의 팀에 회원이 없으면 AgeStats.EMPTY
+	public AgeStats getByTeamName(String teamName) {
+		return snapshotByTeamName.getOrDefault(teamName, AgeStats.EMPTY);
+	}
+
+	public Map<String, AgeStats> getAllByTeamName() {
+		return new HashMap<>(snapshotByTeamName);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onMemberChanged(MemberChangedEvent event) {
+		MemberState previous = apply(event);
+		refreshTotal();
+		refreshTeam(previous == null ? null : previous.teamId);
+		refreshTeam(event.getTeamId());
+	}
+
+	// 목록을 모두 반영한 뒤 스냅샷은 바뀐 팀 이름마다 한 번만 다시 만든다
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onMembersChanged(MembersChangedEvent event) {
+		Set<Long> changedTeamIds = new HashSet<>();
+		for (MemberChangedEvent change : event.getChanges()) {
+			MemberState previous = apply(change);
+			if (previous != null && previous.teamId != null) {
+				changedTeamIds.add(previous.teamId);
+			}
+			if (change.getTeamId() != null) {
+				changedTeamIds.add(change.getTeamId());
+			}
+		}
+		refreshTotal();
+		Set<String> changedNames = new HashSet<>();
+		for (Long teamId : changedTeamIds) {
+			String name = teamNames.get(teamId);
+			if (name != null) {
+				changedNames.add(name);
+			}
+		}
+		changedNames.forEach(this::refreshName);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onTeamChanged(TeamChangedEvent event) {
+		String previousName = event.getType() == ChangeType.DELETE
+			? teamNames.remove(event.getTeamId())
+			: teamNames.put(event.getTeamId(), event.getName());
+		refreshName(previousName);
+		refreshName(teamNames.get(event.getTeamId()));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onMembersBulkChanged(MembersBulkChangedEvent event) {
+		rebuild();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		startupRebuildRunner.run("team stats", this::rebuild);
+	}
+
+	public void rebuild() {
+		readOnlyTransaction.executeWithoutResult(status -> {
+			synchronized (this) {
+				members.clear();
+				teams.clear();
+				teamNames.clear();
+				total.clear();
+
+				for (Tuple t : queryFactory.select(team.Id, team.name).from(team).fetch()) {
+					teamNames.put(t.get(team.Id), t.get(team.name));
+				}
+				try (CloseableIterator<Tuple> rows = queryFactory
+					.select(member.Id, member.team.Id, member.age) // team_id 컬럼만 읽으므로 team 조인 없음
+					.from(member)
+					.iterate()) {
+					while (rows.hasNext()) {
+						Tuple row = rows.next();
+						MemberState state = new MemberState(row.get(member.team.Id), row.get(member.age));
+						members.put(row.get(member.Id), state);
+						add(state);
+					}
+				}
+
+				snapshotByTeamName.clear();
+				refreshTotal();
+				new HashSet<>(teamNames.values()).forEach(this::refreshName);
+				log.info("team stats rebuilt: members={}, teams={}", members.size(), teamNames.size());
+			}
+		});
+	}
+
+	/**
+	 * 메모리 집계와 Querydsl group by 결과를 비교한다.
+	 * @return 일치하지 않는 항목 설명. 비어 있으면 일치
+	 */
+	public List<String> verify() {
+		return readOnlyTransaction.execute(status -> {
+			List<String> mismatches = new ArrayList<>();
+
+			Tuple all = queryFactory
+				.select(member.count(), member.age.sum(), member.age.min(), member.age.max())
+				.from(member)
+				.fetchOne();
+			compare("total", toStats(all, 0), getTotal(), mismatches);
+
+			List<Tuple> grouped = queryFactory
+				.select(team.name, member.count(), member.age.sum(), member.age.min(), member.age.max())
+				.from(member)
+				.join(member.team, team)
+				.groupBy(team.name)
+				.fetch();
+			Set<String> names = new HashSet<>(snapshotByTeamName.keySet());
+			for (Tuple row : grouped) {
+				String name = row.get(team.name);
+				names.remove(name);
+				compare(name, toStats(row, 1), getByTeamName(name), mismatches);
+			}
+			for (String name : names) { // 메모리에만 있는 팀
+				compare(name, AgeStats.EMPTY, getByTeamName(name), mismatches);
+			}
+			return mismatches;
+		});
+	}
+
+	// 집계에 반영하고 이전 상태를 돌려준다. 스냅샷은 호출한 쪽에서 갱신한다
+	private MemberState apply(MemberChangedEvent event) {
+		MemberState previous = members.remove(event.getMemberId());
+		if (previous != null) {
+			remove(previous);
+		}
+		if (event.getType() != ChangeType.DELETE) {
+			MemberState current = new MemberState(event.getTeamId(), event.getAge());
+			members.put(event.getMemberId(), current);
+			add(current);
+		}
+		return previous;
+	}
+
+	private void add(MemberState state) {
+		total.add(state.age);
+		if (state.teamId != null) {
+			teams.computeIfAbsent(state.teamId, id -> new Aggregate()).add(state.age);
+		}
+	}
+
+	private void remove(MemberState state) {
+		total.remove(state.age);
+		if (state.teamId != null) {
+			Aggregate aggregate = teams.get(state.teamId);
+			if (aggregate != null) {
+				aggregate.remove(state.age);
+			}
+		}
+	}
+
+	private void refreshTotal() {
+		totalSnapshot = total.toStats();
+	}
+
+	private void refreshTeam(Long teamId) {
+		if (teamId != null) {
+			refreshName(teamNames.get(teamId));
+		}
+	}
+
+	// group by team.name과 같도록 이름이 같은 팀들의 집계를 합친다
+	private void refreshName(String name) {
+		if (name == null) {
+			return;
+		}
+		Aggregate merged = new Aggregate();
+		teamNames.forEach((teamId, teamName) -> {
+			Aggregate aggregate = teams.get(teamId);
+			if (name.equals(teamName) && aggregate != null) {
+				merged.addAll(aggregate);
+			}
+		});
+		if (merged.count == 0) {
+			snapshotByTeamName.remove(name);
+		} else {
+			snapshotByTeamName.put(name, merged.toStats());
+		}
+	}
+
+	// count, sum, min, max 순서로 select 한 결과. JPQL의 sum(int)은 Long을 반환하므로 Number로 꺼낸다
+	private static AgeStats toStats(Tuple row, int offset) {
+		Number count = row.get(offset, Number.class);
+		if (count == null || count.longValue() == 0) {
+			return AgeStats.EMPTY;
+		}
+		Number sum = row.get(offset + 1, Number.class);
+		Number min = row.get(offset + 2, Number.class);
+		Number max = row.get(offset + 3, Number.class);
+		return new AgeStats(count.longValue(), sum.longValue(), min.intValue(), max.intValue());
+	}
+
+	private static void compare(String name, AgeStats expected, AgeStats actual, List<String> mismatches) {
+		if (!Objects.equals(expected, actual)) {
+			mismatches.add(name + ": db=" + expected + ", memory=" + actual);
+		}
+	}
+
+	private static class MemberState {
+
+		final Long teamId;
+		final int age;
+
+		MemberState(Long teamId, int age) {
+			this.teamId = teamId;
+			this.age = age;
+		}
+	}
+
+	// min/max를 삭제 후에도 유지하기 위해 나이별 인원 수를 정렬해서 보관한다
+	private static class Aggregate {
+
+		final TreeMap<Integer, Integer> ageCounts = new TreeMap<>();
+		long count;
+		long sum;
+
+		void add(int age) {
+			ageCounts.merge(age, 1, Integer::sum);
+			count++;
+			sum += age;
+		}
+
+		void remove(int age) {
+			ageCounts.computeIfPresent(age, (a, c) -> c == 1 ? null : c - 1);
+			count--;
+			sum -= age;
+		}
+
+		void addAll(Aggregate other) {
+			other.ageCounts.forEach((age, c) -> ageCounts.merge(age, c, Integer::sum));
+			count += other.count;
+			sum += other.sum;
+		}
+
+		void clear() {
+			ageCounts.clear();
+			count = 0;
+			sum = 0;
+		}
+
+		AgeStats toStats() {
+			if (count == 0) {
+				return AgeStats.EMPTY;
+			}
+			return new AgeStats(count, sum, ageCounts.firstKey(), ageCounts.lastKey());
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package study.querydsl.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityNotFoundException;
+import javax.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+/**
+ * 회원 팀 이동
+ * 비관적 락(select ... for update) 대신 Member의 @Version으로 충돌을 감지하고, 충돌하면 새 트랜잭션으로 다시 시도한다.
+ * 재시도는 querydsl.transfer.max-attempts까지 하고, 시도 사이에는 시도 횟수에 비례한 임의의 시간만큼 쉰다.
+ * 재시도하려면 트랜잭션을 새로 시작해야 하므로 항상 별도 트랜잭션(REQUIRES_NEW)에서 실행한다.
+ */
+@Slf4j
+@Service
+public class TeamTransferService {
+
+	private final EntityManager em;
+	private final TransactionTemplate transaction;
+	private final int maxAttempts;
+	private final long backoffMillis;
+
+	private final AtomicLong conflicts = new AtomicLong();
+	private final AtomicLong failures = new AtomicLong();
+
+	public TeamTransferService(EntityManager em, PlatformTransactionManager transactionManager,
+		@Value("${querydsl.transfer.max-attempts:5}") int maxAttempts,
+		@Value("${querydsl.transfer.backoff-millis:5}") long backoffMillis) {
+		this.em = em;
+		this.transaction = new TransactionTemplate(transactionManager);
+		this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.maxAttempts = maxAttempts;
+		this.backoffMillis = backoffMillis;
+	}
+
+	/**
+	 * @return 팀을 옮겼으면 true, 이미 그 팀이면 false
+	 * @throws OptimisticLockingFailureException max-attempts 번 모두 충돌한 경우
+	 */
+	public boolean transfer(Long memberId, Long teamId) {
+		for (int attempt = 1; ; attempt++) {
+			try {
+				return Boolean.TRUE.equals(transaction.execute(status -> move(memberId, teamId)));
+			} catch (OptimisticLockingFailureException | OptimisticLockException e) {
+				conflicts.incrementAndGet();
+				if (attempt >= maxAttempts) {
+					failures.incrementAndGet();
+					log.warn("team transfer failed after {} attempts: member={}, team={}", attempt, memberId, teamId);
+					throw e;
+				}
+				backoff(attempt);
+			}
+		}
+	}
+
+	// 충돌로 다시 시도한 횟수
+	public long getConflicts() {
+		return conflicts.get();
+	}
+
+	// 재시도를 모두 쓰고 실패한 횟수
+	public long getFailures() {
+		return failures.get();
+	}
+
+	private boolean move(Long memberId, Long teamId) {
+		Member member = em.find(Member.class, memberId);
+		if (member == null) {
+			throw new EntityNotFoundException("member not found: " + memberId);
+		}
+		if (member.getTeam() != null && teamId.equals(member.getTeam().getId())) {
+			return false;
+		}
+		Team team = em.find(Team.class, teamId); // 2차 캐시
+		if (team == null) {
+			throw new EntityNotFoundException("team not found: " + teamId);
+		}
+		// changeTeam은 로딩되지 않은 team.members를 건드리지 않는다. 이동마다 팀의 회원 전체를 읽지 않는다
+		member.changeTeam(team); // 커밋할 때 update ... where member_id = ? and version = ?
+		return true;
+	}
+
+	private void backoff(int attempt) {
+		try {
+			Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMillis * attempt + 1));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while retrying team transfer", e);
+		}
+	}
+}
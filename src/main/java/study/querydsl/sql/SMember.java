@@ -0,0 +1,61 @@
+package study.querydsl.sql;
+
+import static com.querydsl.core.types.PathMetadataFactory.forVariable;
+
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.PathMetadata;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.ForeignKey;
+import com.querydsl.sql.PrimaryKey;
+import com.querydsl.sql.RelationalPathBase;
+import java.sql.Types;
+
+/**
+ * member 테이블의 Querydsl SQL 메타 모델 (querydsl-sql-codegen이 만드는 형태와 같다)
+ * Member 엔티티 매핑이 바뀌면 함께 수정한다.
+ */
+public class SMember extends RelationalPathBase<SMember> {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final SMember member = new SMember("member");
+
+	public final NumberPath<Long> memberId = createNumber("memberId", Long.class);
+
+	public final StringPath username = createString("username");
+
+	public final NumberPath<Integer> age = createNumber("age", Integer.class);
+
+	public final NumberPath<Long> teamId = createNumber("teamId", Long.class);
+
+	public final NumberPath<Long> version = createNumber("version", Long.class);
+
+	public final PrimaryKey<SMember> primary = createPrimaryKey(memberId);
+
+	public final ForeignKey<STeam> teamFk = createForeignKey(teamId, "ID");
+
+	public SMember(String variable) {
+		super(SMember.class, forVariable(variable), "PUBLIC", "MEMBER");
+		addMetadata();
+	}
+
+	public SMember(Path<? extends SMember> path) {
+		super(path.getType(), path.getMetadata(), "PUBLIC", "MEMBER");
+		addMetadata();
+	}
+
+	public SMember(PathMetadata metadata) {
+		super(SMember.class, metadata, "PUBLIC", "MEMBER");
+		addMetadata();
+	}
+
+	public void addMetadata() {
+		addMetadata(memberId, ColumnMetadata.named("MEMBER_ID").withIndex(1).ofType(Types.BIGINT).withSize(19).notNull());
+		addMetadata(age, ColumnMetadata.named("AGE").withIndex(2).ofType(Types.INTEGER).withSize(10).notNull());
+		addMetadata(username, ColumnMetadata.named("USERNAME").withIndex(3).ofType(Types.VARCHAR).withSize(255));
+		addMetadata(version, ColumnMetadata.named("VERSION").withIndex(4).ofType(Types.BIGINT).withSize(19));
+		addMetadata(teamId, ColumnMetadata.named("TEAM_ID").withIndex(5).ofType(Types.BIGINT).withSize(19));
+	}
+}
@@ -0,0 +1,55 @@
+package study.querydsl.sql;
+
+import static com.querydsl.core.types.PathMetadataFactory.forVariable;
+
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.PathMetadata;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.ForeignKey;
+import com.querydsl.sql.PrimaryKey;
+import com.querydsl.sql.RelationalPathBase;
+import java.sql.Types;
+
+/**
+ * team 테이블의 Querydsl SQL 메타 모델 (querydsl-sql-codegen이 만드는 형태와 같다)
+ * Team 엔티티 매핑이 바뀌면 함께 수정한다.
+ */
+public class STeam extends RelationalPathBase<STeam> {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final STeam team = new STeam("team");
+
+	public final NumberPath<Long> id = createNumber("id", Long.class);
+
+	public final StringPath name = createString("name");
+
+	public final NumberPath<Long> version = createNumber("version", Long.class);
+
+	public final PrimaryKey<STeam> primary = createPrimaryKey(id);
+
+	public final ForeignKey<SMember> _memberTeamFk = createInvForeignKey(id, "TEAM_ID");
+
+	public STeam(String variable) {
+		super(STeam.class, forVariable(variable), "PUBLIC", "TEAM");
+		addMetadata();
+	}
+
+	public STeam(Path<? extends STeam> path) {
+		super(path.getType(), path.getMetadata(), "PUBLIC", "TEAM");
+		addMetadata();
+	}
+
+	public STeam(PathMetadata metadata) {
+		super(STeam.class, metadata, "PUBLIC", "TEAM");
+		addMetadata();
+	}
+
+	public void addMetadata() {
+		addMetadata(id, ColumnMetadata.named("ID").withIndex(1).ofType(Types.BIGINT).withSize(19).notNull());
+		addMetadata(name, ColumnMetadata.named("NAME").withIndex(2).ofType(Types.VARCHAR).withSize(255));
+		addMetadata(version, ColumnMetadata.named("VERSION").withIndex(3).ofType(Types.BIGINT).withSize(19));
+	}
+}
@@ -0,0 +1,111 @@
+package study.querydsl.support;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * JPA(JDBC) 작업 전용 executor
+ * - 동시에 실행되는 작업 수를 커넥션 풀 크기(poolSize)로 제한한다. 그 이상은 커넥션을 기다리기만 한다
+ * - 실행 중 + 대기 중인 작업이 poolSize + queueCapacity를 넘으면 RejectedExecutionException으로 바로 거절한다 (backpressure)
+ * - virtualThreads: 작업마다 가상 스레드를 만든다 (JDK 21+). 지원하지 않는 JDK에서는 일반 스레드 풀을 사용한다
+ * Executor 타입 빈이 있으면 스프링 부트가 applicationTaskExecutor를 만들지 않으므로 Executor를 구현하지 않는다.
+ * 필요한 곳에는 jpaExecutor::execute로 넘긴다.
+ */
+@Slf4j
+public class JpaExecutor {
+
+	private final ExecutorService delegate;
+	private final Semaphore admitted;
+	private final Semaphore running; // 가상 스레드 모드에서만 사용. 일반 모드는 스레드 수가 곧 실행 수 제한이다
+	private final AtomicLong rejected = new AtomicLong();
+	private final int capacity;
+	private final boolean virtualThreads;
+
+	public JpaExecutor(int poolSize, int queueCapacity, boolean virtualThreads) {
+		this.capacity = poolSize + queueCapacity;
+		this.admitted = new Semaphore(capacity);
+		ExecutorService virtual = virtualThreads ? newVirtualThreadPerTaskExecutor() : null;
+		this.virtualThreads = virtual != null;
+		this.delegate = virtual != null ? virtual : Executors.newFixedThreadPool(poolSize, platformThreadFactory());
+		this.running = virtual != null ? new Semaphore(poolSize) : null;
+	}
+
+	public void execute(Runnable task) {
+		if (!admitted.tryAcquire()) {
+			rejected.incrementAndGet();
+			throw new RejectedExecutionException("jpa executor is full");
+		}
+		try {
+			delegate.execute(() -> {
+				try {
+					runBounded(task);
+				} finally {
+					admitted.release();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			admitted.release(); // shutdown 이후
+			throw e;
+		}
+	}
+
+	public void shutdown() throws InterruptedException {
+		delegate.shutdown();
+		delegate.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	// 실행 중 + 대기 중인 작업 수
+	public int getInFlight() {
+		return capacity - admitted.availablePermits();
+	}
+
+	public long getRejected() {
+		return rejected.get();
+	}
+
+	public boolean isVirtualThreads() {
+		return virtualThreads;
+	}
+
+	private void runBounded(Runnable task) {
+		if (running == null) {
+			task.run();
+			return;
+		}
+		running.acquireUninterruptibly(); // 가상 스레드는 블록되어도 carrier 스레드를 점유하지 않는다
+		try {
+			task.run();
+		} finally {
+			running.release();
+		}
+	}
+
+	private static ThreadFactory platformThreadFactory() {
+		AtomicInteger sequence = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, "jpa-" + sequence.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	// 소스 호환성(Java 11)을 유지하기 위해 리플렉션으로 호출한다
+	private static ExecutorService newVirtualThreadPerTaskExecutor() {
+		try {
+			Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) method.invoke(null);
+		} catch (ReflectiveOperationException | UnsupportedOperationException e) {
+			log.warn("virtual threads are not available on Java {}, using a platform thread pool",
+				System.getProperty("java.version"));
+			return null;
+		}
+	}
+}
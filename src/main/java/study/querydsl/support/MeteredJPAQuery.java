@@ -0,0 +1,78 @@
+package study.querydsl.support;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.QueryResults;
+import com.querydsl.core.types.Expression;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAQuery;
+import java.util.List;
+import javax.persistence.EntityManager;
+
+/**
+ * fetch/fetchOne/fetchResults/fetchCount 실행을 QueryMetrics로 계측하는 JPAQuery
+ * fetchFirst()는 limit(1).fetchOne()이므로 fetchOne으로 기록된다.
+ */
+public class MeteredJPAQuery<T> extends JPAQuery<T> {
+
+	private final QueryMetrics metrics;
+	private String shape;
+
+	public MeteredJPAQuery(EntityManager em, JPQLTemplates templates, QueryMetrics metrics) {
+		super(em, templates);
+		this.metrics = metrics;
+	}
+
+	public MeteredJPAQuery(EntityManager em, JPQLTemplates templates, QueryMetadata metadata, QueryMetrics metrics) {
+		super(em, templates, metadata);
+		this.metrics = metrics;
+	}
+
+	/**
+	 * 메트릭의 shape 태그를 직접 지정한다. 지정하지 않으면 "루트 엔티티:프로젝션 타입"을 사용한다.
+	 * 태그 값의 종류가 늘어나지 않도록 조건 값 같은 가변 값은 넣지 않는다.
+	 */
+	public MeteredJPAQuery<T> shape(String shape) {
+		this.shape = shape;
+		return this;
+	}
+
+	@Override
+	public List<T> fetch() {
+		return metrics.record(shape(), "fetch", this::toString, super::fetch, List::size);
+	}
+
+	@Override
+	public T fetchOne() {
+		return metrics.record(shape(), "fetchOne", this::toString, super::fetchOne, r -> r == null ? 0 : 1);
+	}
+
+	@Override
+	public QueryResults<T> fetchResults() {
+		return metrics.record(shape(), "fetchResults", this::toString, super::fetchResults,
+			r -> r.getResults().size());
+	}
+
+	@Override
+	public long fetchCount() {
+		return metrics.record(shape(), "fetchCount", this::toString, super::fetchCount, r -> 1);
+	}
+
+	@Override
+	public MeteredJPAQuery<T> clone(EntityManager entityManager, JPQLTemplates templates) {
+		MeteredJPAQuery<T> q = new MeteredJPAQuery<>(entityManager, templates, getMetadata().clone(), metrics);
+		q.clone(this);
+		q.shape = shape;
+		return q;
+	}
+
+	private String shape() {
+		if (shape != null) {
+			return shape;
+		}
+		QueryMetadata metadata = getMetadata();
+		String root = metadata.getJoins().isEmpty()
+			? "none" : metadata.getJoins().get(0).getTarget().getType().getSimpleName();
+		Expression<?> projection = metadata.getProjection();
+		return root + ":" + (projection == null ? "none" : projection.getType().getSimpleName());
+	}
+}
@@ -0,0 +1,35 @@
+package study.querydsl.support;
+
+import com.querydsl.jpa.HQLTemplates;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import javax.persistence.EntityManager;
+
+/**
+ * 모든 조회 쿼리를 MeteredJPAQuery로 만드는 JPAQueryFactory
+ * select()/selectFrom()/from()은 모두 query()를 통해 쿼리를 만들므로 query()만 바꾸면 된다.
+ */
+public class MeteredJPAQueryFactory extends JPAQueryFactory {
+
+	private final EntityManager em;
+	private final JPQLTemplates templates;
+	private final QueryMetrics metrics;
+
+	public MeteredJPAQueryFactory(EntityManager em, QueryMetrics metrics) {
+		// Hibernate 전용 템플릿을 지정해서 쿼리마다 JPA 구현체를 확인하지 않는다
+		this(HQLTemplates.DEFAULT, em, metrics);
+	}
+
+	public MeteredJPAQueryFactory(JPQLTemplates templates, EntityManager em, QueryMetrics metrics) {
+		super(templates, em);
+		this.em = em;
+		this.templates = templates;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public JPAQuery<?> query() {
+		return new MeteredJPAQuery<Void>(em, templates, metrics);
+	}
+}
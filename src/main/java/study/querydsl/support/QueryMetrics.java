@@ -0,0 +1,128 @@
+package study.querydsl.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Querydsl 쿼리 실행 계측
+ * - querydsl.query (Timer): 쿼리 모양(shape)/연산별 실행 시간
+ * - querydsl.query.rows (DistributionSummary): 반환 row 수
+ * - querydsl.query.statements (DistributionSummary): 한 번의 실행에서 나간 SQL 문 수 (지연 로딩/count 쿼리 포함)
+ * - querydsl.query.slow (Counter): querydsl.metrics.slow-query-threshold를 넘은 실행. JPQL을 WARN 로그로 남긴다
+ */
+@Slf4j
+@Component
+public class QueryMetrics {
+
+	private final MeterRegistry registry;
+	private final SqlStatementCounter sqlStatementCounter;
+	private final Duration slowQueryThreshold;
+
+	// shape -> operation -> 미터. 실행마다 builder로 찾지 않도록 처음 한 번만 등록한다
+	private final ConcurrentHashMap<String, ConcurrentHashMap<String, Meters>> metersByShape = new ConcurrentHashMap<>();
+
+	public QueryMetrics(MeterRegistry registry, SqlStatementCounter sqlStatementCounter,
+		@Value("${querydsl.metrics.slow-query-threshold:500ms}") Duration slowQueryThreshold) {
+		this.registry = registry;
+		this.sqlStatementCounter = sqlStatementCounter;
+		this.slowQueryThreshold = slowQueryThreshold;
+	}
+
+	/**
+	 * @param jpql 느린 쿼리일 때만 호출된다 (직렬화 비용을 매번 치르지 않기 위해)
+	 */
+	public <R> R record(String shape, String operation, Supplier<String> jpql, Supplier<R> execution,
+		ToIntFunction<R> rows) {
+		Meters meters = meters(shape, operation);
+		long statements = sqlStatementCounter.getCurrentThreadCount();
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			R result = execution.get();
+			success = true;
+			meters.rows.record(rows.applyAsInt(result));
+			return result;
+		} finally {
+			long elapsed = System.nanoTime() - start;
+			(success ? meters.success : meters.error()).record(elapsed, TimeUnit.NANOSECONDS);
+			meters.statements.record(sqlStatementCounter.getCurrentThreadCount() - statements);
+			if (elapsed > slowQueryThreshold.toNanos()) {
+				meters.slow().increment();
+				log.warn("slow query: {} ms, shape={}, operation={}, jpql={}",
+					TimeUnit.NANOSECONDS.toMillis(elapsed), shape, operation, jpql.get());
+			}
+		}
+	}
+
+	private Meters meters(String shape, String operation) {
+		return metersByShape
+			.computeIfAbsent(shape, key -> new ConcurrentHashMap<>())
+			.computeIfAbsent(operation, key -> new Meters(registry, shape, operation));
+	}
+
+	/**
+	 * 쿼리 모양/연산 하나의 미터
+	 * error 타이머와 slow 카운터는 처음 발생할 때 등록한다. 발생하지 않은 시계열(histogram 버킷 포함)을 내보내지 않는다
+	 */
+	private static final class Meters {
+
+		final MeterRegistry registry;
+		final String shape;
+		final String operation;
+		final Timer success;
+		final DistributionSummary rows;
+		final DistributionSummary statements;
+		volatile Timer error;
+		volatile Counter slow;
+
+		Meters(MeterRegistry registry, String shape, String operation) {
+			this.registry = registry;
+			this.shape = shape;
+			this.operation = operation;
+			this.success = timer("success");
+			this.rows = DistributionSummary.builder("querydsl.query.rows")
+				.tags("shape", shape, "operation", operation)
+				.register(registry);
+			this.statements = DistributionSummary.builder("querydsl.query.statements")
+				.tags("shape", shape, "operation", operation)
+				.register(registry);
+		}
+
+		// 동시에 처음 호출되어도 registry가 같은 미터를 돌려준다
+		Timer error() {
+			Timer timer = error;
+			if (timer == null) {
+				timer = timer("error");
+				error = timer;
+			}
+			return timer;
+		}
+
+		Counter slow() {
+			Counter counter = slow;
+			if (counter == null) {
+				counter = Counter.builder("querydsl.query.slow")
+					.tags("shape", shape, "operation", operation)
+					.register(registry);
+				slow = counter;
+			}
+			return counter;
+		}
+
+		private Timer timer(String outcome) {
+			return Timer.builder("querydsl.query")
+				.tags("shape", shape, "operation", operation, "outcome", outcome)
+				.register(registry);
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package study.querydsl.support;
+
+import com.querydsl.core.NonUniqueResultException;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.jpa.HQLTemplates;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAUtil;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+/**
+ * 한 번 JPQL로 직렬화해 둔 Querydsl 쿼리 모양(shape)
+ * 조건 값은 Param 자리표시자로 두고, 실행할 때는 파라미터만 바인딩한다.
+ * 매번 QueryMetadata를 만들고 JPQL로 직렬화하는 비용이 없고, 같은 JPQL 문자열이므로 Hibernate의 HQL 계획 캐시도 재사용된다.
+ * 여러 스레드에서 공유할 수 있다. (bind()가 호출마다 새 객체를 만든다)
+ * 실행은 MeteredJPAQuery와 같이 QueryMetrics로 계측한다. shape 태그는 캐시 키다.
+ */
+public final class QueryTemplate<T> {
+
+	private final EntityManager em;
+	private final String shape;
+	private final QueryMetrics metrics;
+	private final String jpql;
+	private final Map<Object, String> constants;
+	private final FactoryExpression<T> factoryExpression;
+	private final Long limit;
+	private final Long offset;
+
+	@SuppressWarnings("unchecked")
+	QueryTemplate(EntityManager em, String shape, QueryMetrics metrics, JPQLQuery<T> query) {
+		QueryMetadata metadata = query.getMetadata();
+		JPQLSerializer serializer = new JPQLSerializer(HQLTemplates.DEFAULT, em);
+		serializer.serialize(metadata, false, null);
+
+		this.em = em;
+		this.shape = shape;
+		this.metrics = metrics;
+		this.jpql = serializer.toString();
+		this.constants = Collections.unmodifiableMap(new LinkedHashMap<>(serializer.getConstantToLabel()));
+		Expression<?> projection = metadata.getProjection();
+		this.factoryExpression = projection instanceof FactoryExpression ? (FactoryExpression<T>) projection : null;
+		QueryModifiers modifiers = metadata.getModifiers();
+		this.limit = modifiers.getLimit();
+		this.offset = modifiers.getOffset();
+	}
+
+	public String getJpql() {
+		return jpql;
+	}
+
+	public <P> BoundQuery<T> bind(ParamExpression<P> param, P value) {
+		return new BoundQuery<>(this).bind(param, value);
+	}
+
+	public BoundQuery<T> unbound() {
+		return new BoundQuery<>(this);
+	}
+
+	/**
+	 * 파라미터 값이 바인딩된 한 번의 실행
+	 */
+	public static final class BoundQuery<T> {
+
+		private final QueryTemplate<T> template;
+		private final Map<ParamExpression<?>, Object> params = new HashMap<>();
+
+		private BoundQuery(QueryTemplate<T> template) {
+			this.template = template;
+		}
+
+		public <P> BoundQuery<T> bind(ParamExpression<P> param, P value) {
+			params.put(param, value);
+			return this;
+		}
+
+		public Query createQuery() {
+			Query query = template.em.createQuery(template.jpql);
+			// 상수와 Param 모두 직렬화 시점의 라벨(?1, ?2 ...)로 바인딩한다. 값이 없는 Param은 ParamNotSetException
+			JPAUtil.setConstants(query, template.constants, params);
+			if (template.limit != null) {
+				query.setMaxResults(template.limit.intValue());
+			}
+			if (template.offset != null) {
+				query.setFirstResult(template.offset.intValue());
+			}
+			return query;
+		}
+
+		public List<T> fetch() {
+			return template.metrics.record(template.shape, "fetch", template::getJpql, this::fetchRows, List::size);
+		}
+
+		// Querydsl의 fetchOne()과 같이 결과가 없으면 null, 둘 이상이면 NonUniqueResultException
+		public T fetchOne() {
+			return template.metrics.record(template.shape, "fetchOne", template::getJpql, () -> {
+				List<T> result = fetchRows();
+				if (result.isEmpty()) {
+					return null;
+				}
+				if (result.size() > 1) {
+					throw new NonUniqueResultException();
+				}
+				return result.get(0);
+			}, r -> r == null ? 0 : 1);
+		}
+
+		@SuppressWarnings("unchecked")
+		private List<T> fetchRows() {
+			List<?> rows = createQuery().getResultList();
+			if (template.factoryExpression == null) {
+				return (List<T>) rows;
+			}
+			List<T> result = new ArrayList<>(rows.size());
+			for (Object row : rows) {
+				result.add(template.factoryExpression.newInstance(row instanceof Object[] ? (Object[]) row : new Object[] {row}));
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package study.querydsl.support;
+
+import com.querydsl.jpa.JPQLQuery;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * 쿼리 모양별 QueryTemplate 캐시
+ * 키마다 처음 한 번만 Querydsl 쿼리를 만들어 직렬화한다. 조건 값은 반드시 Param으로 만들어야 한다.
+ * (리터럴 값을 넣으면 첫 호출의 값이 JPQL 상수로 고정된다)
+ */
+@Component
+public class QueryTemplateCache {
+
+	private final Map<String, QueryTemplate<?>> templates = new ConcurrentHashMap<>();
+	private final QueryMetrics metrics;
+
+	@PersistenceContext
+	private EntityManager em;
+
+	public QueryTemplateCache(QueryMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> QueryTemplate<T> get(String key, Supplier<? extends JPQLQuery<T>> shape) {
+		return (QueryTemplate<T>) templates.computeIfAbsent(key, k -> new QueryTemplate<>(em, k, metrics, shape.get()));
+	}
+
+	public int size() {
+		return templates.size();
+	}
+}
@@ -0,0 +1,36 @@
+package study.querydsl.support;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+
+/**
+ * 실행된 SQL 문 수를 센다
+ * p6spy starter는 JdbcEventListener 타입의 빈을 자동으로 등록하므로 빈으로 선언하기만 하면 된다.
+ * batch 실행은 한 번으로 센다. (DB 왕복 횟수 기준)
+ */
+@Component
+public class SqlStatementCounter extends SimpleJdbcEventListener {
+
+	private static final ThreadLocal<long[]> THREAD_COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+	private final AtomicLong total = new AtomicLong();
+
+	@Override
+	public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+		total.incrementAndGet();
+		THREAD_COUNT.get()[0]++;
+	}
+
+	// 애플리케이션 전체에서 실행된 SQL 문 수
+	public long getTotal() {
+		return total.get();
+	}
+
+	// 현재 스레드에서 실행된 SQL 문 수. 구간 전후의 차이로 사용한다
+	public long getCurrentThreadCount() {
+		return THREAD_COUNT.get()[0];
+	}
+}
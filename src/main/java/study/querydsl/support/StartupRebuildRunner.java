@@ -0,0 +1,41 @@
+package study.querydsl.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 애플리케이션 시작 시(ApplicationReadyEvent) 메모리 상태를 DB에서 다시 만드는 작업을 실행한다.
+ * - 기본: 이벤트를 받은 스레드에서 바로 실행한다. 기동이 끝나면 집계/인덱스가 채워져 있다
+ * - async=true (faststart): applicationTaskExecutor에서 실행한다.
+ *   백그라운드로 만들어지는 EntityManagerFactory를 기동 스레드가 기다리지 않는다. 다 만들어질 때까지는 빈 상태로 응답한다
+ */
+@Slf4j
+@Component
+public class StartupRebuildRunner {
+
+	private final TaskExecutor taskExecutor;
+	private final boolean async;
+
+	public StartupRebuildRunner(@Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+		@Value("${querydsl.startup.async-rebuild:false}") boolean async) {
+		this.taskExecutor = taskExecutor;
+		this.async = async;
+	}
+
+	public void run(String name, Runnable rebuild) {
+		if (!async) {
+			rebuild.run();
+			return;
+		}
+		taskExecutor.execute(() -> {
+			try {
+				rebuild.run();
+			} catch (RuntimeException e) {
+				log.error("startup rebuild failed: {}", name, e);
+			}
+		});
+	}
+}
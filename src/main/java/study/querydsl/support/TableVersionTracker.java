@@ -0,0 +1,64 @@
+package study.querydsl.support;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import study.querydsl.event.MemberChangedEvent;
+import study.querydsl.event.MembersBulkChangedEvent;
+import study.querydsl.event.MembersChangedEvent;
+import study.querydsl.event.TeamChangedEvent;
+
+/**
+ * 테이블별 변경 버전. 조회 API의 ETag를 만든다.
+ * - 엔티티 리스너/벌크 연산 이벤트를 커밋 이후에 받아서 버전을 올린다 (롤백된 변경은 버전을 올리지 않음)
+ * - 이벤트를 발행하지 않는 변경(직접 실행한 JPQL/SQL 등)은 알 수 없다
+ * - 버전은 프로세스마다 따로 관리한다. 인스턴스가 여러 개면 인스턴스마다 ETag가 다르다 (캐시 미스일 뿐 틀린 응답은 아니다)
+ */
+@Component
+public class TableVersionTracker {
+
+	public enum Table {
+		MEMBER, TEAM
+	}
+
+	// 재시작하면 버전이 0부터 다시 시작하므로 이전 프로세스가 발급한 ETag와 겹치지 않도록 시작 시각을 붙인다
+	private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+	private final AtomicLongArray versions = new AtomicLongArray(Table.values().length);
+
+	public long getVersion(Table table) {
+		return versions.get(table.ordinal());
+	}
+
+	/**
+	 * 주어진 테이블 버전으로 만든 ETag 값 (따옴표 제외)
+	 * 조회 쿼리를 실행하기 전에 만들어야 한다. 그래야 조회 도중 커밋된 변경이 다음 요청에서 반드시 보인다
+	 */
+	public String etag(Table... tables) {
+		StringBuilder etag = new StringBuilder(epoch);
+		for (Table table : tables) {
+			etag.append('-').append(versions.get(table.ordinal()));
+		}
+		return etag.toString();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onMemberChanged(MemberChangedEvent event) {
+		versions.incrementAndGet(Table.MEMBER.ordinal());
+	}
+
+	// 여러 회원이 바뀌어도 버전은 한 번만 올린다
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onMembersChanged(MembersChangedEvent event) {
+		versions.incrementAndGet(Table.MEMBER.ordinal());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onMembersBulkChanged(MembersBulkChangedEvent event) {
+		versions.incrementAndGet(Table.MEMBER.ordinal());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onTeamChanged(TeamChangedEvent event) {
+		versions.incrementAndGet(Table.TEAM.ordinal());
+	}
+}
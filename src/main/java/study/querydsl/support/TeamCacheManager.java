@@ -0,0 +1,123 @@
+package study.querydsl.support;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.persistence.EntityManagerFactory;
+import lombok.Getter;
+import lombok.ToString;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.TeamQueryRepository;
+
+/**
+ * 팀 캐시 영역의 통계 조회와 수동 무효화
+ * - hit/miss/put: Hibernate Statistics (hibernate.generate_statistics)
+ * - eviction: Caffeine JCache 통계 MXBean (크기/TTL로 제거된 수)
+ */
+@Component
+public class TeamCacheManager {
+
+	public static final String ENTITY_REGION = Team.class.getName();
+	public static final String MEMBERS_REGION = Team.class.getName() + ".members";
+	public static final List<String> REGIONS =
+		List.of(ENTITY_REGION, MEMBERS_REGION, TeamQueryRepository.QUERY_CACHE_REGION);
+
+	private final EntityManagerFactory emf;
+	private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+	private volatile SessionFactory sessionFactory;
+
+	public TeamCacheManager(EntityManagerFactory emf) {
+		this.emf = emf; // faststart에서는 백그라운드로 만들어지는 중이므로 여기서 unwrap하지 않는다
+	}
+
+	public Map<String, RegionStats> getStats() {
+		Map<String, RegionStats> stats = new LinkedHashMap<>();
+		for (String region : REGIONS) {
+			stats.put(region, getStats(region));
+		}
+		return stats;
+	}
+
+	public RegionStats getStats(String region) {
+		Statistics statistics = sessionFactory().getStatistics();
+		if (region.equals(TeamQueryRepository.QUERY_CACHE_REGION)) {
+			return stats(region, () -> statistics.getQueryRegionStatistics(region));
+		}
+		return stats(region, () -> statistics.getDomainDataRegionStatistics(region));
+	}
+
+	/**
+	 * 애플리케이션 밖(SQL 직접 수정 등)에서 팀 데이터가 바뀌었을 때 캐시를 비운다.
+	 * JPA/JPQL로 수정한 경우는 Hibernate가 알아서 갱신/무효화한다.
+	 */
+	public void evictAll() {
+		SessionFactory sessionFactory = sessionFactory();
+		sessionFactory.getCache().evictEntityData(Team.class);
+		sessionFactory.getCache().evictCollectionData(MEMBERS_REGION);
+		sessionFactory.getCache().evictQueryRegion(TeamQueryRepository.QUERY_CACHE_REGION);
+	}
+
+	// 처음 사용할 때 unwrap한다. EntityManagerFactory가 아직 만들어지는 중이면 완료를 기다린다
+	private SessionFactory sessionFactory() {
+		SessionFactory result = sessionFactory;
+		if (result == null) {
+			result = emf.unwrap(SessionFactory.class);
+			sessionFactory = result;
+		}
+		return result;
+	}
+
+	private RegionStats stats(String region, Supplier<CacheRegionStatistics> supplier) {
+		CacheRegionStatistics statistics;
+		try {
+			statistics = supplier.get();
+		} catch (IllegalArgumentException e) {
+			statistics = null; // 아직 만들어지지 않은 영역
+		}
+		if (statistics == null) {
+			return new RegionStats(0, 0, 0, evictions(region));
+		}
+		return new RegionStats(statistics.getHitCount(), statistics.getMissCount(), statistics.getPutCount(),
+			evictions(region));
+	}
+
+	private long evictions(String region) {
+		try {
+			Set<ObjectName> names = mBeanServer.queryNames(
+				new ObjectName("javax.cache:type=CacheStatistics,Cache=" + region + ",*"), null);
+			long evictions = 0;
+			for (ObjectName name : names) {
+				evictions += (Long) mBeanServer.getAttribute(name, "CacheEvictions");
+			}
+			return evictions;
+		} catch (Exception e) {
+			return -1; // JCache 통계를 사용할 수 없음
+		}
+	}
+
+	@Getter
+	@ToString
+	public static class RegionStats {
+
+		private final long hits;
+		private final long misses;
+		private final long puts;
+		private final long evictions;
+
+		public RegionStats(long hits, long misses, long puts, long evictions) {
+			this.hits = hits;
+			this.misses = misses;
+			this.puts = puts;
+			this.evictions = evictions;
+		}
+	}
+}
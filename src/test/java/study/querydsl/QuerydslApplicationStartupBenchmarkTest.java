@@ -0,0 +1,119 @@
+package study.querydsl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.support.BenchmarkSupport.millis;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 기동 시작부터 첫 요청 응답까지의 시간: 기본 설정 vs faststart 프로파일
+ * 첫 요청은 JPA를 사용하는 /async/members 이므로 EntityManagerFactory 생성 완료까지 포함된다.
+ * 같은 JVM에서 반복하므로 첫 기동(클래스 로딩)은 측정에서 뺀다.
+ * 실행: ./gradlew test --tests '*QuerydslApplicationStartupBenchmarkTest' -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class QuerydslApplicationStartupBenchmarkTest {
+
+	private static final int REPEAT = 5;
+
+	// faststart는 스키마를 만들지 않으므로 기본 설정으로 먼저 만든 메모리 DB를 같이 쓴다
+	private static final String[] COMMON = {
+		"--server.port=0",
+		"--spring.datasource.url=jdbc:h2:mem:startup;DB_CLOSE_DELAY=-1",
+		"--logging.level.org.hibernate.SQL=warn",
+		"--logging.level.org.hibernate.type=warn"
+	};
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@Test
+	public void timeToFirstRequest() throws Exception {
+		measure(); // 스키마 생성 + 워밍업
+
+		long standard = 0;
+		long faststart = 0;
+		for (int i = 0; i < REPEAT; i++) {
+			standard += measure();
+			faststart += measure("faststart");
+		}
+		System.out.printf("time to first request: default %.0f ms, faststart %.0f ms%n",
+			millis(standard) / REPEAT, millis(faststart) / REPEAT);
+	}
+
+	/**
+	 * faststart에서는 EntityManagerFactory 생성이 끝나기 전에 기동이 끝나야 한다.
+	 * 생성 완료를 일부러 늦춰서, 기동 중에 누군가 EntityManagerFactory를 기다리면 순서가 바뀌도록 한다.
+	 */
+	@Test
+	public void faststartIsReadyBeforeEntityManagerFactory() throws Exception {
+		measure(); // 스키마 생성
+
+		SlowSessionFactoryObserver.createdAt = 0;
+		long[] readyAt = new long[1];
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(QuerydslApplication.class)
+			.profiles("faststart")
+			.listeners((ApplicationListener<ApplicationReadyEvent>) event -> readyAt[0] = System.nanoTime())
+			.run(withArgs("--spring.jpa.properties.hibernate.session_factory_observer="
+				+ SlowSessionFactoryObserver.class.getName()))) {
+			assertThat(readyAt[0]).isNotZero();
+			assertThat(SlowSessionFactoryObserver.createdAt).isZero(); // 아직 만들어지는 중
+
+			String port = context.getEnvironment().getProperty("local.server.port");
+			HttpResponse<String> response = client.send(
+				HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/async/members?username=member1")).build(),
+				HttpResponse.BodyHandlers.ofString());
+			assertThat(response.statusCode()).isEqualTo(200);
+			assertThat(SlowSessionFactoryObserver.createdAt).isGreaterThan(readyAt[0]);
+		}
+	}
+
+	private long measure(String... profiles) throws Exception {
+		long start = System.nanoTime();
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(QuerydslApplication.class)
+			.profiles(profiles)
+			.run(COMMON)) {
+			String port = context.getEnvironment().getProperty("local.server.port");
+			HttpResponse<String> response = client.send(
+				HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/async/members?username=member1")).build(),
+				HttpResponse.BodyHandlers.ofString());
+			long elapsed = System.nanoTime() - start;
+			assertThat(response.statusCode()).isEqualTo(200);
+			return elapsed;
+		}
+	}
+
+	private static String[] withArgs(String... args) {
+		String[] result = new String[COMMON.length + args.length];
+		System.arraycopy(COMMON, 0, result, 0, COMMON.length);
+		System.arraycopy(args, 0, result, COMMON.length, args.length);
+		return result;
+	}
+
+	// SessionFactory 생성 완료를 1초 늦추고 완료 시각을 기록한다 (백그라운드 부트스트랩 스레드에서 호출된다)
+	public static class SlowSessionFactoryObserver implements SessionFactoryObserver {
+
+		static volatile long createdAt;
+
+		@Override
+		public void sessionFactoryCreated(SessionFactory factory) {
+			try {
+				TimeUnit.SECONDS.sleep(1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			createdAt = System.nanoTime();
+		}
+	}
+}
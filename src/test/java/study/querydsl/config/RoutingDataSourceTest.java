@@ -0,0 +1,85 @@
+package study.querydsl.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+
+/**
+ * 메모리 H2 두 개를 write/read 풀로 사용한다. read 쪽 스키마는 replica-schema.sql로 만든다.
+ * 두 DB 사이에 복제는 없으므로 write로 저장한 데이터는 read 트랜잭션에서 보이지 않는다.
+ */
+@SpringBootTest(properties = {
+	"querydsl.datasource.routing.enabled=true",
+	"querydsl.datasource.routing.write.jdbc-url=jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1",
+	"querydsl.datasource.routing.read.jdbc-url="
+		+ "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:replica-schema.sql'"
+})
+class RoutingDataSourceTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	TransactionTemplate write;
+	TransactionTemplate read;
+
+	@BeforeEach
+	public void before() {
+		write = new TransactionTemplate(transactionManager);
+		read = new TransactionTemplate(transactionManager);
+		read.setReadOnly(true);
+	}
+
+	@AfterEach
+	public void after() {
+		write.executeWithoutResult(status -> em.createQuery("delete from Member").executeUpdate());
+	}
+
+	@Test
+	public void readOnlyTransactionUsesReadPool() {
+		assertThat(write.execute(status -> databaseName())).isEqualTo("ROUTING_PRIMARY");
+		assertThat(read.execute(status -> databaseName())).isEqualTo("ROUTING_REPLICA");
+	}
+
+	@Test
+	public void writesGoToPrimary() {
+		write.executeWithoutResult(status -> em.persist(new Member("member1", 10)));
+
+		Long primary = write.execute(status -> em.createQuery("select count(m) from Member m", Long.class)
+			.getSingleResult());
+		Long replica = read.execute(status -> em.createQuery("select count(m) from Member m", Long.class)
+			.getSingleResult());
+
+		assertThat(primary).isEqualTo(1);
+		assertThat(replica).isZero();
+	}
+
+	@Test
+	public void acquireTimeIsRecordedPerPool() {
+		write.execute(status -> databaseName());
+		read.execute(status -> databaseName());
+
+		assertThat(meterRegistry.get("hikaricp.connections.acquire").tag("pool", "querydsl-write").timer().count())
+			.isGreaterThanOrEqualTo(1);
+		assertThat(meterRegistry.get("hikaricp.connections.acquire").tag("pool", "querydsl-read").timer().count())
+			.isGreaterThanOrEqualTo(1);
+	}
+
+	private String databaseName() {
+		return (String) em.createNativeQuery("select database()").getSingleResult();
+	}
+}
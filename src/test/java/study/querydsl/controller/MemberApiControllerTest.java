@@ -0,0 +1,129 @@
+package study.querydsl.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.support.SqlStatementCounter;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+class MemberApiControllerTest {
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	SqlStatementCounter sqlStatementCounter;
+
+	HttpClient client = HttpClient.newHttpClient();
+
+	Long teamAId;
+
+	@BeforeEach
+	public void before() {
+		// 요청은 다른 스레드(톰캣)에서 처리되므로 커밋해 둔다
+		teamAId = transactionTemplate.execute(status -> {
+			Team teamA = new Team("teamA");
+			Team teamB = new Team("teamB");
+			em.persist(teamA);
+			em.persist(teamB);
+			em.persist(new Member("member1", 10, teamA));
+			em.persist(new Member("member2", 20, teamA));
+			em.persist(new Member("member3", 30, teamB));
+			em.persist(new Member("member4", 40)); // 팀 없음
+			return teamA.getId();
+		});
+	}
+
+	@AfterEach
+	public void after() {
+		transactionTemplate.executeWithoutResult(status -> {
+			em.createQuery("delete from Member").executeUpdate();
+			em.createQuery("delete from Team").executeUpdate();
+		});
+	}
+
+	@Test
+	public void search() throws Exception {
+		HttpResponse<String> response = get("/api/members?ageGoe=20&size=2", null);
+
+		assertThat(response.statusCode()).isEqualTo(200);
+		assertThat(response.headers().firstValue("ETag")).isPresent();
+		JsonNode body = objectMapper.readTree(response.body());
+		assertThat(body.get("content")).extracting(node -> node.get("username").asText())
+			.containsExactly("member2", "member3");
+		assertThat(body.get("hasNext").asBoolean()).isTrue();
+		assertThat(body.get("content").get(0).get("teamId").asLong()).isEqualTo(teamAId);
+
+		JsonNode last = objectMapper.readTree(get("/api/members?ageGoe=20&size=2&page=1", null).body());
+		assertThat(last.get("content")).extracting(node -> node.get("username").asText())
+			.containsExactly("member4");
+		assertThat(last.get("content").get(0).get("teamId").isNull()).isTrue();
+		assertThat(last.get("hasNext").asBoolean()).isFalse();
+	}
+
+	@Test
+	public void notModifiedWithoutQuery() throws Exception {
+		String etag = get("/api/members?teamName=teamA", null).headers().firstValue("ETag").orElseThrow();
+
+		long before = sqlStatementCounter.getTotal();
+		HttpResponse<String> response = get("/api/members?teamName=teamA", etag);
+
+		assertThat(response.statusCode()).isEqualTo(304);
+		assertThat(response.body()).isEmpty();
+		assertThat(sqlStatementCounter.getTotal() - before).isZero();
+	}
+
+	@Test
+	public void changedAfterCommit() throws Exception {
+		String etag = get("/api/teams/" + teamAId + "/members", null).headers().firstValue("ETag").orElseThrow();
+
+		transactionTemplate.executeWithoutResult(status ->
+			em.persist(new Member("member5", 50, em.find(Team.class, teamAId))));
+		HttpResponse<String> response = get("/api/teams/" + teamAId + "/members", etag);
+
+		assertThat(response.statusCode()).isEqualTo(200);
+		assertThat(response.headers().firstValue("ETag")).isPresent().get().isNotEqualTo(etag);
+		assertThat(objectMapper.readTree(response.body()).get("content"))
+			.extracting(node -> node.get("username").asText())
+			.containsExactly("member1", "member2", "member5");
+	}
+
+	@Test
+	public void unknownTeam() throws Exception {
+		assertThat(get("/api/teams/-1/members", null).statusCode()).isEqualTo(404);
+	}
+
+	private HttpResponse<String> get(String path, String ifNoneMatch) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET();
+		if (ifNoneMatch != null) {
+			request.header("If-None-Match", ifNoneMatch);
+		}
+		return client.send(request.build(), BodyHandlers.ofString());
+	}
+}
@@ -0,0 +1,109 @@
+package study.querydsl.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.support.BenchmarkSupport;
+import study.querydsl.support.SqlStatementCounter;
+
+/**
+ * 같은 페이지를 계속 폴링하는 클라이언트를 흉내 낸다. If-None-Match 없이/있이 처리량과 실행된 SQL 수를 출력한다.
+ * ./gradlew test --tests '*MemberApiLoadBenchmarkTest' -Dbenchmark=true [-Dbenchmark.requests=20000]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+class MemberApiLoadBenchmarkTest {
+
+	private static final int CONCURRENCY = 50;
+	private static final String PATH = "/api/members?teamName=team7&ageGoe=50&size=100";
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	SqlStatementCounter sqlStatementCounter;
+
+	@BeforeEach
+	public void before() {
+		transactionTemplate.executeWithoutResult(status ->
+			BenchmarkSupport.seedMembers(em, BenchmarkSupport.rows(100_000), 100));
+	}
+
+	@AfterEach
+	public void after() {
+		transactionTemplate.executeWithoutResult(status -> {
+			em.createQuery("delete from Member").executeUpdate();
+			em.createQuery("delete from Team").executeUpdate();
+		});
+	}
+
+	@Test
+	public void conditionalRequests() throws Exception {
+		int requests = Integer.getInteger("benchmark.requests", 20_000);
+		HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+		String etag = client.send(request(null), HttpResponse.BodyHandlers.discarding())
+			.headers().firstValue("ETag").orElseThrow();
+
+		run(client, requests / 10, null); // 워밍업
+		run(client, requests / 10, etag);
+		run(client, requests, null);
+		run(client, requests, etag);
+	}
+
+	private void run(HttpClient client, int requests, String etag) {
+		Semaphore permits = new Semaphore(CONCURRENCY);
+		AtomicInteger ok = new AtomicInteger();
+		AtomicInteger notModified = new AtomicInteger();
+		List<CompletableFuture<Void>> futures = new ArrayList<>(requests);
+		long statements = sqlStatementCounter.getTotal();
+		long start = System.nanoTime();
+		for (int i = 0; i < requests; i++) {
+			permits.acquireUninterruptibly();
+			futures.add(client.sendAsync(request(etag), HttpResponse.BodyHandlers.discarding())
+				.thenAccept(response -> (response.statusCode() == 304 ? notModified : ok).incrementAndGet())
+				.whenComplete((result, e) -> permits.release()));
+		}
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+		long elapsed = System.nanoTime() - start;
+
+		System.out.printf("conditional=%s requests=%d 200=%d 304=%d statements=%d throughput=%.0f req/s%n",
+			etag != null, requests, ok.get(), notModified.get(), sqlStatementCounter.getTotal() - statements,
+			requests / (elapsed / 1_000_000_000.0));
+		assertThat(ok.get() + notModified.get()).isEqualTo(requests);
+	}
+
+	private HttpRequest request(String etag) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + PATH))
+			.timeout(Duration.ofSeconds(60))
+			.GET();
+		if (etag != null) {
+			builder.header("If-None-Match", etag);
+		}
+		return builder.build();
+	}
+}
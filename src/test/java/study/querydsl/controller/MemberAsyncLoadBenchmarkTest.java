@@ -0,0 +1,108 @@
+package study.querydsl.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.support.BenchmarkSupport;
+
+/**
+ * 동시 클라이언트 수(-Dbenchmark.clients, 기본 2000)만큼 요청을 한 번에 보내고 p50/p99 지연과 처리량을 출력한다.
+ * 503(backpressure)으로 거절된 요청 수도 함께 출력한다.
+ * ./gradlew test --tests '*MemberAsyncLoadBenchmarkTest' -Dbenchmark=true [-PvirtualThreads]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+class MemberAsyncLoadBenchmarkTest {
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	public void before() {
+		transactionTemplate.executeWithoutResult(status ->
+			BenchmarkSupport.seedMembers(em, BenchmarkSupport.rows(100_000), 100));
+	}
+
+	@AfterEach
+	public void after() {
+		transactionTemplate.executeWithoutResult(status -> {
+			em.createQuery("delete from Member").executeUpdate();
+			em.createQuery("delete from Team").executeUpdate();
+		});
+	}
+
+	@Test
+	public void concurrentClients() {
+		int clients = Integer.getInteger("benchmark.clients", 2000);
+		HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+		warmUp(client, 100);
+
+		long[] latencies = new long[clients];
+		AtomicInteger ok = new AtomicInteger();
+		AtomicInteger unavailable = new AtomicInteger();
+		long start = System.nanoTime();
+		List<CompletableFuture<Void>> futures = new ArrayList<>(clients);
+		for (int i = 0; i < clients; i++) {
+			int index = i;
+			long sent = System.nanoTime();
+			futures.add(client.sendAsync(request(i), HttpResponse.BodyHandlers.discarding())
+				.thenAccept(response -> {
+					latencies[index] = System.nanoTime() - sent;
+					(response.statusCode() == 200 ? ok : unavailable).incrementAndGet();
+				}));
+		}
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+		long elapsed = System.nanoTime() - start;
+
+		Arrays.sort(latencies);
+		System.out.printf("clients=%d ok=%d 503=%d p50=%.1fms p99=%.1fms throughput=%.0f req/s%n",
+			clients, ok.get(), unavailable.get(),
+			BenchmarkSupport.millis(latencies[clients / 2]),
+			BenchmarkSupport.millis(latencies[(int) (clients * 0.99)]),
+			clients / (elapsed / 1_000_000_000.0));
+		assertThat(ok.get() + unavailable.get()).isEqualTo(clients);
+	}
+
+	private void warmUp(HttpClient client, int requests) {
+		List<CompletableFuture<?>> futures = new ArrayList<>();
+		for (int i = 0; i < requests; i++) {
+			futures.add(client.sendAsync(request(i), HttpResponse.BodyHandlers.discarding()));
+		}
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+	}
+
+	// 팀 이름 + 나이 조건 검색 (team join)
+	private HttpRequest request(int i) {
+		return HttpRequest.newBuilder(URI.create(
+				"http://localhost:" + port + "/async/members?teamName=team" + (i % 100 + 1) + "&ageGoe=90"))
+			.timeout(Duration.ofSeconds(60))
+			.GET()
+			.build();
+	}
+}
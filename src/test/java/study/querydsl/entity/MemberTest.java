@@ -6,9 +6,11 @@ import java.util.List;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Commit;
 import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.support.SqlStatementCounter;
 
 @SpringBootTest
 @Transactional
@@ -18,6 +20,9 @@ class MemberTest {
 	@PersistenceContext
 	EntityManager em;
 
+	@Autowired
+	SqlStatementCounter sqlStatementCounter;
+
 	@Test
 	public void testEntity() {
 		Team teamA = new Team("TeamA");
@@ -48,4 +53,68 @@ class MemberTest {
 		}
 	}
 
+	// 새로 만든 팀은 members가 있으므로 양쪽이 바로 맞춰진다
+	@Test
+	public void changeTeamOfNewEntities() {
+		Team teamA = new Team("TeamA");
+		Team teamB = new Team("TeamB");
+		Member member1 = new Member("member1", 10, teamA);
+
+		member1.changeTeam(teamB);
+
+		assertTrue(teamA.getMembers().isEmpty());
+		assertEquals(List.of(member1), teamB.getMembers());
+	}
+
+	@Test
+	public void changeTeamOfLoadedEntities() {
+		Team teamA = new Team("TeamA");
+		Team teamB = new Team("TeamB");
+		em.persist(teamA);
+		em.persist(teamB);
+		Member member1 = new Member("member1", 10, teamA);
+		em.persist(member1);
+		em.persist(new Member("member2", 20, teamB));
+		em.flush();
+		em.clear();
+
+		Member found = em.find(Member.class, member1.getId());
+		Team foundA = em.find(Team.class, teamA.getId());
+		Team foundB = em.find(Team.class, teamB.getId());
+		assertEquals(1, foundA.getMembers().size()); // 이전 팀 컬렉션을 로딩해 둔다
+
+		found.changeTeam(foundB);
+
+		assertTrue(foundA.getMembers().isEmpty()); // 로딩된 컬렉션에서는 빠진다
+
+		em.flush();
+		em.clear();
+		assertEquals(teamB.getId(), em.find(Member.class, member1.getId()).getTeam().getId());
+		assertEquals(2, em.find(Team.class, teamB.getId()).getMembers().size());
+	}
+
+	// 팀의 members가 로딩되지 않았으면 changeTeam()이 SQL을 실행하지 않는다 (bytecode enhancement 여부와 무관)
+	@Test
+	public void changeTeamDoesNotLoadMembers() {
+		Team teamA = new Team("TeamA");
+		Team teamB = new Team("TeamB");
+		em.persist(teamA);
+		em.persist(teamB);
+		Member member1 = new Member("member1", 10, teamA);
+		em.persist(member1);
+		em.persist(new Member("member2", 20, teamB));
+		em.flush();
+		em.clear();
+
+		Member found = em.find(Member.class, member1.getId()); // team은 초기화되지 않은 프록시
+		Team foundB = em.find(Team.class, teamB.getId()); // members는 로딩하지 않는다
+
+		long before = sqlStatementCounter.getCurrentThreadCount();
+		found.changeTeam(foundB);
+		assertEquals(0, sqlStatementCounter.getCurrentThreadCount() - before);
+
+		em.flush();
+		em.clear();
+		assertEquals(teamB.getId(), em.find(Member.class, member1.getId()).getTeam().getId());
+	}
 }
@@ -0,0 +1,93 @@
+package study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.support.SqlStatementCounter;
+
+/**
+ * N+1 회귀 테스트
+ * p6spy로 실행된 SQL 수를 세어, 팀/회원 수에 비례해서 쿼리가 늘어나면 실패한다.
+ */
+@SpringBootTest(properties = "querydsl.batch-fetch.size=4")
+@Transactional
+class BatchFetcherTest {
+
+	private static final int TEAM_COUNT = 10;
+	private static final int MEMBERS_PER_TEAM = 3;
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	JPAQueryFactory queryFactory;
+
+	@Autowired
+	BatchFetcher batchFetcher;
+
+	@Autowired
+	SqlStatementCounter sqlStatementCounter;
+
+	@BeforeEach
+	public void before() {
+		for (int i = 0; i < TEAM_COUNT; i++) {
+			Team t = new Team("team" + i);
+			em.persist(t);
+			for (int j = 0; j < MEMBERS_PER_TEAM; j++) {
+				em.persist(new Member("member" + i + "_" + j, 10 + j, t));
+			}
+		}
+		em.flush();
+		em.clear();
+	}
+
+	@Test
+	public void loadTeams() {
+		long before = sqlStatementCounter.getCurrentThreadCount();
+
+		List<Member> members = queryFactory.selectFrom(member).fetch(); // 1
+		batchFetcher.loadTeams(members); // team 10개 / batch 4 = 3
+		for (Member m : members) {
+			assertThat(m.getTeam().getName()).startsWith("team"); // 추가 SQL 없음
+		}
+
+		assertThat(sqlStatementCounter.getCurrentThreadCount() - before).isEqualTo(1 + 3);
+	}
+
+	@Test
+	public void loadMembers() {
+		long before = sqlStatementCounter.getCurrentThreadCount();
+
+		List<Team> teams = queryFactory.selectFrom(team).fetch(); // 1
+		batchFetcher.loadMembers(teams); // 3
+		for (Team t : teams) {
+			assertThat(t.getMembers()).hasSize(MEMBERS_PER_TEAM); // 추가 SQL 없음
+		}
+
+		assertThat(sqlStatementCounter.getCurrentThreadCount() - before).isEqualTo(1 + 3);
+	}
+
+	@Test
+	public void withoutBatchFetch_isNPlusOne() {
+		long before = sqlStatementCounter.getCurrentThreadCount();
+
+		List<Member> members = queryFactory.selectFrom(member).fetch();
+		for (Member m : members) {
+			m.getTeam().getName(); // team 프록시마다 select
+		}
+
+		// 카운터가 실제로 지연 로딩 SQL을 잡아내는지 확인
+		assertThat(sqlStatementCounter.getCurrentThreadCount() - before).isEqualTo(1 + TEAM_COUNT);
+	}
+}
@@ -0,0 +1,93 @@
+package study.querydsl.repository;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.support.BenchmarkSupport.millis;
+
+import com.querydsl.core.QueryResults;
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.support.BenchmarkSupport;
+
+/**
+ * offset 페이징(fetchResults) vs 키셋 페이징 비교
+ * 실행: ./gradlew test --tests '*MemberPagingBenchmarkTest' -Dbenchmark=true [-Dbenchmark.rows=1000000]
+ */
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MemberPagingBenchmarkTest {
+
+	private static final int PAGE_SIZE = 20;
+	private static final int REPEAT = 5;
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	JPAQueryFactory queryFactory;
+
+	@Autowired
+	MemberQueryRepository memberQueryRepository;
+
+	@Test
+	public void offsetVsKeyset() {
+		int rows = BenchmarkSupport.rows(1_000_000);
+		BenchmarkSupport.seedMembers(em, rows);
+		em.clear();
+
+		System.out.printf("rows=%d, pageSize=%d%n", rows, PAGE_SIZE);
+		System.out.printf("%10s %14s %14s%n", "offset", "offset(ms)", "keyset(ms)");
+		for (double depth : new double[] {0.0, 0.1, 0.5, 0.9, 0.999}) {
+			long offset = (long) (rows * depth);
+			String cursor = cursorAt(offset);
+
+			long offsetNanos = Long.MAX_VALUE;
+			long keysetNanos = Long.MAX_VALUE;
+			for (int i = 0; i < REPEAT; i++) {
+				long start = System.nanoTime();
+				QueryResults<Member> results = queryFactory
+					.selectFrom(member)
+					.orderBy(member.age.asc(), member.Id.asc())
+					.offset(offset)
+					.limit(PAGE_SIZE)
+					.fetchResults();
+				offsetNanos = Math.min(offsetNanos, System.nanoTime() - start);
+				em.clear();
+
+				start = System.nanoTime();
+				KeysetSlice<Member> slice = memberQueryRepository.findPageOrderByAge(cursor, PAGE_SIZE);
+				keysetNanos = Math.min(keysetNanos, System.nanoTime() - start);
+				em.clear();
+
+				// 같은 페이지를 읽었는지 확인
+				assertThat(slice.getContent()).extracting("id")
+					.containsExactlyElementsOf(results.getResults().stream().map(Member::getId).collect(toList()));
+			}
+			System.out.printf("%10d %14.2f %14.2f%n", offset, millis(offsetNanos), millis(keysetNanos));
+		}
+	}
+
+	// offset 위치 바로 앞 row의 키로 커서를 만든다 (측정 대상 아님)
+	private String cursorAt(long offset) {
+		if (offset == 0) {
+			return null;
+		}
+		Tuple key = queryFactory
+			.select(member.age, member.Id)
+			.from(member)
+			.orderBy(member.age.asc(), member.Id.asc())
+			.offset(offset - 1)
+			.limit(1)
+			.fetchOne();
+		return KeysetCursor.ofAge(key.get(member.age), key.get(member.Id));
+	}
+}
@@ -0,0 +1,99 @@
+package study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+@SpringBootTest
+@Transactional
+class MemberQueryRepositoryTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	MemberQueryRepository memberQueryRepository;
+
+	@BeforeEach
+	public void before() {
+		Team teamA = new Team("teamA");
+		Team teamB = new Team("teamB");
+		em.persist(teamA);
+		em.persist(teamB);
+
+		em.persist(new Member("member1", 10, teamA));
+		em.persist(new Member("member2", 20, teamA));
+		em.persist(new Member("member3", 20, teamB)); // 같은 나이는 member_Id로 순서를 정한다
+		em.persist(new Member("member4", 40, teamB));
+		em.persist(new Member(null, 50));
+	}
+
+	@Test
+	public void keysetByAge() {
+		List<String> usernames = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			KeysetSlice<Member> slice = memberQueryRepository.findPageOrderByAge(cursor, 2);
+			slice.getContent().forEach(m -> usernames.add(m.getUsername()));
+			cursor = slice.getNextCursor();
+			pages++;
+			assertThat(slice.isHasNext()).isEqualTo(cursor != null);
+		} while (cursor != null);
+
+		assertThat(pages).isEqualTo(3);
+		assertThat(usernames).containsExactly("member1", "member2", "member3", "member4", null);
+	}
+
+	// 페이지 결과는 관리 상태의 엔티티다. 읽기 전용이 필요하면 readOnly 트랜잭션에서 호출한다
+	@Test
+	public void pageResultIsManaged() {
+		em.flush();
+		em.clear();
+
+		Member member1 = memberQueryRepository.findPageOrderByAge(null, 2).getContent().get(0);
+		assertThat(em.unwrap(Session.class).isReadOnly(member1)).isFalse();
+
+		member1.setAge(99);
+		em.flush();
+		em.clear();
+
+		assertThat(em.find(Member.class, member1.getId()).getAge()).isEqualTo(99);
+	}
+
+	@Test
+	public void keysetByUsername() {
+		KeysetSlice<Member> first = memberQueryRepository.findPageOrderByUsername(null, 2);
+		assertThat(first.getContent()).extracting("username").containsExactly(null, "member1"); // null이 가장 먼저
+		assertThat(first.isHasNext()).isTrue();
+
+		KeysetSlice<Member> second = memberQueryRepository.findPageOrderByUsername(first.getNextCursor(), 2);
+		assertThat(second.getContent()).extracting("username").containsExactly("member2", "member3");
+
+		KeysetSlice<Member> last = memberQueryRepository.findPageOrderByUsername(second.getNextCursor(), 2);
+		assertThat(last.getContent()).extracting("username").containsExactly("member4");
+		assertThat(last.isHasNext()).isFalse();
+		assertThat(last.getNextCursor()).isNull();
+	}
+
+	@Test
+	public void invalidCursor() {
+		String usernameCursor = memberQueryRepository.findPageOrderByUsername(null, 1).getNextCursor();
+
+		assertThatThrownBy(() -> memberQueryRepository.findPageOrderByAge(usernameCursor, 1))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> memberQueryRepository.findPageOrderByAge("!!not-base64!!", 1))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+}
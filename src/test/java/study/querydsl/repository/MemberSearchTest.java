@@ -0,0 +1,92 @@
+package study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+@SpringBootTest
+@Transactional
+class MemberSearchTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	MemberQueryRepository memberQueryRepository;
+
+	@BeforeEach
+	public void before() {
+		Team teamA = new Team("teamA");
+		Team teamB = new Team("teamB");
+		em.persist(teamA);
+		em.persist(teamB);
+
+		em.persist(new Member("member1", 10, teamA));
+		em.persist(new Member("member2", 20, teamA));
+		em.persist(new Member("member3", 30, teamB));
+		em.persist(new Member("member4", 40, teamB));
+		em.persist(new Member("member5", 50)); // 팀 없음
+	}
+
+	@Test
+	public void noCondition() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+
+		assertThat(memberQueryRepository.search(condition)).hasSize(5); // 팀 없는 회원도 포함
+		assertThat(memberQueryRepository.searchQuery(condition).toString()).doesNotContain("join");
+	}
+
+	@Test
+	public void ageRangeWithoutJoin() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setAgeGoe(20);
+		condition.setAgeLoe(40);
+
+		assertThat(memberQueryRepository.search(condition))
+			.extracting("username").containsExactly("member2", "member3", "member4");
+		assertThat(memberQueryRepository.searchQuery(condition).toString()).doesNotContain("join");
+	}
+
+	@Test
+	public void teamNameJoinsTeam() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setTeamName("teamB");
+		condition.setAgeGoe(35);
+
+		assertThat(memberQueryRepository.search(condition))
+			.extracting("username").containsExactly("member4");
+		assertThat(memberQueryRepository.searchQuery(condition).toString()).contains("join");
+	}
+
+	@Test
+	public void blankStringsAreIgnored() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setUsername("");
+		condition.setTeamName(" ");
+		condition.setAgeLoe(10);
+
+		assertThat(memberQueryRepository.search(condition)).extracting("username").containsExactly("member1");
+	}
+
+	@Test
+	public void searchPage() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setTeamName("teamA");
+
+		Page<MemberDto> page = memberQueryRepository.search(condition, PageRequest.of(0, 1));
+
+		assertThat(page.getContent()).extracting("username").containsExactly("member1");
+		assertThat(page.getTotalElements()).isEqualTo(2);
+	}
+}
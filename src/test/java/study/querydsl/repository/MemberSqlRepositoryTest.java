@@ -0,0 +1,82 @@
+package study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mysema.commons.lang.CloseableIterator;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.AgeStats;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.service.MemberReadService;
+
+@SpringBootTest
+@Transactional
+class MemberSqlRepositoryTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	MemberSqlRepository memberSqlRepository;
+
+	@Autowired
+	MemberReadService memberReadService;
+
+	@BeforeEach
+	public void before() {
+		Team teamA = new Team("teamA");
+		Team teamB = new Team("teamB");
+		em.persist(teamA);
+		em.persist(teamB);
+
+		em.persist(new Member("member1", 10, teamA));
+		em.persist(new Member("member2", 20, teamA));
+		em.persist(new Member("member3", 30, teamB));
+		em.persist(new Member("member4", 40)); // 팀 없음
+		em.flush(); // SQLQueryFactory는 같은 커넥션으로 조회한다
+		em.clear();
+	}
+
+	@Test
+	public void findMemberTeams() {
+		List<MemberTeamDto> result = memberSqlRepository.findMemberTeams();
+
+		assertThat(result).extracting("username").containsExactly("member1", "member2", "member3", "member4");
+		assertThat(result).extracting("teamName").containsExactly("teamA", "teamA", "teamB", null);
+		assertThat(result).usingRecursiveFieldByFieldElementComparator()
+			.containsExactlyElementsOf(memberReadService.findMemberTeams());
+	}
+
+	@Test
+	public void findMemberTeamsByTeamName() {
+		List<MemberTeamDto> result = memberSqlRepository.findMemberTeamsByTeamName("teamA");
+
+		assertThat(result).extracting("username").containsExactly("member1", "member2");
+	}
+
+	@Test
+	public void iterateMemberTeams() {
+		List<String> usernames = new ArrayList<>();
+		try (CloseableIterator<MemberTeamDto> rows = memberSqlRepository.iterateMemberTeams(2)) {
+			rows.forEachRemaining(row -> usernames.add(row.getUsername()));
+		}
+
+		assertThat(usernames).containsExactly("member1", "member2", "member3", "member4");
+	}
+
+	@Test
+	public void groupByTeamName() {
+		assertThat(memberSqlRepository.groupByTeamName())
+			.hasSize(2)
+			.containsEntry("teamA", new AgeStats(2, 30, 10, 20))
+			.containsEntry("teamB", new AgeStats(1, 30, 30, 30));
+	}
+}
@@ -0,0 +1,84 @@
+package study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+@SpringBootTest
+@Transactional
+class MemberSubqueryRepositoryTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	MemberSubqueryRepository memberSubqueryRepository;
+
+	Member member2;
+	Member member4;
+	Member member6;
+
+	@BeforeEach
+	public void before() {
+		Team teamA = new Team("teamA");
+		Team teamB = new Team("teamB");
+		em.persist(teamA);
+		em.persist(teamB);
+		// teamA 평균 15, teamB 평균 35
+		em.persist(new Member("member1", 10, teamA));
+		member2 = new Member("member2", 20, teamA);
+		em.persist(member2);
+		em.persist(new Member("member3", 30, teamB));
+		member4 = new Member("member4", 40, teamB);
+		em.persist(member4);
+		em.persist(new Member("member5", 35, teamB)); // 평균과 같음: 제외
+		member6 = new Member("member6", 40); // 팀 없음
+		em.persist(member6);
+		em.flush();
+		em.clear();
+	}
+
+	@Test
+	public void maxAge() {
+		List<Long> expected = memberSubqueryRepository.findIdsWithMaxAgeSubquery();
+
+		assertThat(expected).containsExactly(member4.getId(), member6.getId());
+		assertThat(memberSubqueryRepository.findIdsWithMaxAgeTwoStep()).isEqualTo(expected);
+		assertThat(memberSubqueryRepository.findIdsWithMaxAgeWindow()).isEqualTo(expected);
+	}
+
+	@Test
+	public void aboveTeamAverage() {
+		List<Long> expected = memberSubqueryRepository.findIdsAboveTeamAvgSubquery();
+
+		assertThat(expected).containsExactly(member2.getId(), member4.getId());
+		assertThat(memberSubqueryRepository.findIdsAboveTeamAvgTwoStep()).isEqualTo(expected);
+		assertThat(memberSubqueryRepository.findIdsAboveTeamAvgWindow()).isEqualTo(expected);
+		assertThat(memberSubqueryRepository.findIdsAboveTeamAvgDerivedTable()).isEqualTo(expected);
+	}
+
+	// 평균이 정수가 아닐 때 (teamC 평균 20.5): 21살은 포함, 20살은 제외
+	@Test
+	public void aboveFractionalTeamAverage() {
+		Team teamC = new Team("teamC");
+		em.persist(teamC);
+		em.persist(new Member("member7", 20, teamC));
+		Member member8 = new Member("member8", 21, teamC);
+		em.persist(member8);
+		em.flush();
+		em.clear();
+
+		List<Long> expected = memberSubqueryRepository.findIdsAboveTeamAvgSubquery();
+
+		assertThat(expected).containsExactly(member2.getId(), member4.getId(), member8.getId());
+		assertThat(memberSubqueryRepository.findIdsAboveTeamAvgTwoStep()).isEqualTo(expected);
+	}
+}
@@ -0,0 +1,90 @@
+package study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+@SpringBootTest
+@Transactional
+class QuerydslPagingTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	MemberQueryRepository memberQueryRepository;
+
+	@Autowired
+	QuerydslPaging paging;
+
+	@BeforeEach
+	public void before() {
+		Team teamA = new Team("teamA");
+		Team teamB = new Team("teamB");
+		em.persist(teamA);
+		em.persist(teamB);
+
+		em.persist(new Member("member1", 10, teamA));
+		em.persist(new Member("member2", 20, teamA));
+		em.persist(new Member("member3", 30, teamB));
+		em.persist(new Member("member4", 40, teamB));
+	}
+
+	@Test
+	public void firstPageNotFull_skipsCount() {
+		long executed = paging.getCountQueriesExecuted();
+		long skipped = paging.getCountQueriesSkipped();
+
+		Page<Member> page = memberQueryRepository.findPageOrderByUsernameDesc(PageRequest.of(0, 10));
+
+		assertThat(page.getTotalElements()).isEqualTo(4); // content 크기로 total 계산
+		assertThat(paging.getCountQueriesExecuted()).isEqualTo(executed);
+		assertThat(paging.getCountQueriesSkipped()).isEqualTo(skipped + 1);
+	}
+
+	@Test
+	public void lastPage_skipsCount() {
+		long executed = paging.getCountQueriesExecuted();
+
+		Page<Member> page = memberQueryRepository.findPageOrderByUsernameDesc(PageRequest.of(1, 3));
+
+		assertThat(page.getContent()).extracting("username").containsExactly("member1");
+		assertThat(page.getTotalElements()).isEqualTo(4); // offset + content 크기
+		assertThat(paging.getCountQueriesExecuted()).isEqualTo(executed);
+	}
+
+	@Test
+	public void middlePage_runsCount() {
+		long executed = paging.getCountQueriesExecuted();
+
+		Page<Member> page = memberQueryRepository.findPageOrderByUsernameDesc(PageRequest.of(0, 2));
+
+		assertThat(page.getContent()).extracting("username").containsExactly("member4", "member3");
+		assertThat(page.getTotalElements()).isEqualTo(4);
+		assertThat(paging.getCountQueriesExecuted()).isEqualTo(executed + 1);
+	}
+
+	@Test
+	public void slice() {
+		long executed = paging.getCountQueriesExecuted();
+
+		Slice<Member> first = memberQueryRepository.findSliceOrderByUsernameDesc(PageRequest.of(0, 3));
+		Slice<Member> last = memberQueryRepository.findSliceOrderByUsernameDesc(PageRequest.of(1, 3));
+
+		assertThat(first.getContent()).extracting("username").containsExactly("member4", "member3", "member2");
+		assertThat(first.hasNext()).isTrue();
+		assertThat(last.getContent()).extracting("username").containsExactly("member1");
+		assertThat(last.hasNext()).isFalse();
+		assertThat(paging.getCountQueriesExecuted()).isEqualTo(executed); // slice는 count 쿼리를 실행하지 않는다
+	}
+}
@@ -0,0 +1,107 @@
+package study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Team;
+import study.querydsl.support.SqlStatementCounter;
+import study.querydsl.support.TeamCacheManager;
+
+/**
+ * 2차 캐시/쿼리 캐시는 커밋된 데이터만 캐시하므로 이 테스트는 트랜잭션을 직접 커밋하고 마지막에 데이터를 지운다.
+ */
+@SpringBootTest
+class TeamCacheTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	EntityManagerFactory emf;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	TeamQueryRepository teamQueryRepository;
+
+	@Autowired
+	TeamCacheManager teamCacheManager;
+
+	@Autowired
+	SqlStatementCounter sqlStatementCounter;
+
+	Statistics statistics;
+
+	@BeforeEach
+	public void before() {
+		statistics = emf.unwrap(SessionFactory.class).getStatistics();
+		transactionTemplate.executeWithoutResult(status -> {
+			em.persist(new Team("teamA"));
+			em.persist(new Team("teamB"));
+		});
+		teamCacheManager.evictAll();
+		statistics.clear();
+	}
+
+	@AfterEach
+	public void after() {
+		transactionTemplate.executeWithoutResult(status -> {
+			em.createQuery("delete from Member").executeUpdate();
+			em.createQuery("delete from Team").executeUpdate();
+		});
+		teamCacheManager.evictAll();
+	}
+
+	@Test
+	public void queryCacheHit() {
+		transactionTemplate.executeWithoutResult(status -> teamQueryRepository.findByName("teamA")); // miss -> put
+
+		long before = sqlStatementCounter.getCurrentThreadCount();
+		Team teamA = transactionTemplate.execute(status -> teamQueryRepository.findByName("teamA"));
+
+		assertThat(teamA.getName()).isEqualTo("teamA");
+		assertThat(sqlStatementCounter.getCurrentThreadCount() - before).isZero(); // 쿼리 캐시 + 엔티티 캐시
+		CacheRegionStatistics queryRegion = statistics.getQueryRegionStatistics(TeamQueryRepository.QUERY_CACHE_REGION);
+		assertThat(queryRegion.getMissCount()).isEqualTo(1);
+		assertThat(queryRegion.getHitCount()).isEqualTo(1);
+		assertThat(teamCacheManager.getStats().get(TeamQueryRepository.QUERY_CACHE_REGION).getHits()).isEqualTo(1);
+	}
+
+	@Test
+	public void writeInvalidatesQueryCache() {
+		transactionTemplate.executeWithoutResult(status -> teamQueryRepository.findByName("teamA"));
+
+		transactionTemplate.executeWithoutResult(status -> {
+			Team teamA = teamQueryRepository.findByName("teamA");
+			teamA.setName("teamC"); // team 테이블 변경 -> 쿼리 캐시 무효화
+		});
+
+		assertThat(transactionTemplate.execute(status -> teamQueryRepository.findByName("teamA"))).isNull();
+		assertThat(transactionTemplate.execute(status -> teamQueryRepository.findByName("teamC"))).isNotNull();
+		assertThat(transactionTemplate.execute(status -> teamQueryRepository.findAll()))
+			.extracting("name").containsExactly("teamB", "teamC");
+	}
+
+	@Test
+	public void entityCacheHit() {
+		Long teamId = transactionTemplate.execute(status -> teamQueryRepository.findByName("teamA").getId());
+
+		long before = sqlStatementCounter.getCurrentThreadCount();
+		Team found = transactionTemplate.execute(status -> em.find(Team.class, teamId));
+
+		assertThat(found.getName()).isEqualTo("teamA");
+		assertThat(sqlStatementCounter.getCurrentThreadCount() - before).isZero();
+		assertThat(teamCacheManager.getStats().get(TeamCacheManager.ENTITY_REGION).getHits()).isGreaterThanOrEqualTo(1);
+	}
+}
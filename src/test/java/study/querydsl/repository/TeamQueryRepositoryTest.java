@@ -0,0 +1,117 @@
+package study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.support.SqlStatementCounter;
+
+/**
+ * 2단계 조회(findPageWithMembers)의 SQL 수와 영속성 컨텍스트에 올라오는 엔티티 수를 확인한다.
+ * 영속성 컨텍스트의 엔티티 수 = 메모리에 올린 엔티티 수
+ */
+@SpringBootTest
+@Transactional
+class TeamQueryRepositoryTest {
+
+	private static final int TEAM_COUNT = 10;
+	private static final int MEMBERS_PER_TEAM = 3;
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	JPAQueryFactory queryFactory;
+
+	@Autowired
+	TeamQueryRepository teamQueryRepository;
+
+	@Autowired
+	SqlStatementCounter sqlStatementCounter;
+
+	@BeforeEach
+	public void before() {
+		for (int i = 0; i < TEAM_COUNT; i++) {
+			Team t = new Team("team" + i);
+			em.persist(t);
+			for (int j = 0; j < MEMBERS_PER_TEAM; j++) {
+				em.persist(new Member("member" + i + "_" + j, 10 + j, t));
+			}
+		}
+		em.flush();
+		em.clear();
+	}
+
+	@Test
+	public void firstPage() {
+		long before = sqlStatementCounter.getCurrentThreadCount();
+
+		Page<Team> page = teamQueryRepository.findPageWithMembers(PageRequest.of(0, 4));
+
+		assertThat(page.getContent()).extracting("name").containsExactly("team0", "team1", "team2", "team3");
+		assertThat(page.getTotalElements()).isEqualTo(TEAM_COUNT);
+		for (Team t : page.getContent()) {
+			assertThat(Hibernate.isInitialized(t.getMembers())).isTrue();
+			assertThat(t.getMembers()).extracting("username")
+				.containsExactly(t.getName().replace("team", "member") + "_0",
+					t.getName().replace("team", "member") + "_1",
+					t.getName().replace("team", "member") + "_2");
+		}
+		assertThat(sqlStatementCounter.getCurrentThreadCount() - before).isEqualTo(3); // id 페이지 + count + fetch join
+		assertThat(managedEntities()).isEqualTo(4 + 4 * MEMBERS_PER_TEAM); // 해당 페이지의 팀과 회원만
+	}
+
+	@Test
+	public void lastPage_skipsCount() {
+		long before = sqlStatementCounter.getCurrentThreadCount();
+
+		Page<Team> page = teamQueryRepository.findPageWithMembers(PageRequest.of(2, 4));
+
+		assertThat(page.getContent()).extracting("name").containsExactly("team8", "team9");
+		assertThat(page.getTotalElements()).isEqualTo(TEAM_COUNT);
+		assertThat(page.getContent().get(0).getMembers()).hasSize(MEMBERS_PER_TEAM);
+		assertThat(sqlStatementCounter.getCurrentThreadCount() - before).isEqualTo(2);
+		assertThat(managedEntities()).isEqualTo(2 + 2 * MEMBERS_PER_TEAM);
+	}
+
+	@Test
+	public void emptyPage() {
+		Page<Team> page = teamQueryRepository.findPageWithMembers(PageRequest.of(5, 4));
+
+		assertThat(page.getContent()).isEmpty();
+		assertThat(managedEntities()).isZero();
+	}
+
+	@Test
+	public void fetchJoinWithPaging_loadsEverything() {
+		// 비교용: 컬렉션 fetch join + limit은 HHH000104 경고와 함께 전체 결과를 메모리에 올린다
+		List<Team> teams = queryFactory
+			.selectFrom(team).distinct()
+			.leftJoin(team.members, member).fetchJoin()
+			.orderBy(team.name.asc())
+			.offset(0)
+			.limit(4)
+			.fetch();
+
+		assertThat(teams).hasSize(4);
+		assertThat(managedEntities()).isEqualTo(TEAM_COUNT + TEAM_COUNT * MEMBERS_PER_TEAM);
+	}
+
+	private int managedEntities() {
+		return em.unwrap(Session.class).getStatistics().getEntityCount();
+	}
+}
@@ -0,0 +1,167 @@
+package study.querydsl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.event.ChangeType;
+import study.querydsl.event.MemberChangedEvent;
+
+/**
+ * 인덱스는 커밋 이후에 반영되므로 트랜잭션을 직접 커밋하고, 마지막에 데이터를 지운다.
+ */
+@SpringBootTest(properties = "querydsl.member-index.enabled=true")
+class MemberAgeIndexTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	JPAQueryFactory queryFactory;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	MemberAgeIndex memberAgeIndex;
+
+	@Autowired
+	MemberBulkService memberBulkService;
+
+	Long teamAId;
+	Long teamBId;
+	Long member1Id;
+	Long member2Id;
+	Long member3Id;
+	Long member4Id;
+
+	@BeforeEach
+	public void before() {
+		memberAgeIndex.rebuild();
+		transactionTemplate.executeWithoutResult(status -> {
+			Team teamA = new Team("teamA");
+			Team teamB = new Team("teamB");
+			em.persist(teamA);
+			em.persist(teamB);
+			Member member1 = new Member("member1", 10, teamA);
+			Member member2 = new Member("member2", 20, teamA);
+			Member member3 = new Member("member3", 20, teamA);
+			Member member4 = new Member("member4", 40, teamB);
+			em.persist(member1);
+			em.persist(member2);
+			em.persist(member3);
+			em.persist(member4);
+			em.persist(new Member("member5", 20)); // 팀 없음: 인덱스에 넣지 않는다
+			teamAId = teamA.getId();
+			teamBId = teamB.getId();
+			member1Id = member1.getId();
+			member2Id = member2.getId();
+			member3Id = member3.getId();
+			member4Id = member4.getId();
+		});
+	}
+
+	@AfterEach
+	public void after() {
+		transactionTemplate.executeWithoutResult(status -> {
+			em.createQuery("delete from Member").executeUpdate();
+			em.createQuery("delete from Team").executeUpdate();
+		});
+		memberAgeIndex.rebuild();
+	}
+
+	@Test
+	public void rangeLookup() {
+		assertThat(memberAgeIndex.findMemberIds(teamAId, 15, 20)).containsExactly(member2Id, member3Id);
+		assertThat(memberAgeIndex.findMemberIds(teamAId, 0, Integer.MAX_VALUE))
+			.containsExactly(member1Id, member2Id, member3Id);
+		assertThat(memberAgeIndex.findMemberIds(teamAId, 21, 30)).isEmpty();
+		assertThat(memberAgeIndex.findMemberIds(teamAId, 30, 10)).isEmpty();
+		assertThat(memberAgeIndex.count(teamBId, 40, 40)).isEqualTo(1);
+		assertThat(memberAgeIndex.size()).isEqualTo(4);
+		assertSameAsQuerydsl(teamAId, 10, 20);
+	}
+
+	@Test
+	public void updateAndDelete() {
+		transactionTemplate.executeWithoutResult(status -> {
+			Member member1 = em.find(Member.class, member1Id);
+			member1.setAge(45);
+			member1.changeTeam(em.find(Team.class, teamBId)); // teamA -> teamB
+			em.remove(em.find(Member.class, member2Id));
+		});
+
+		assertThat(memberAgeIndex.findMemberIds(teamAId, 0, 100)).containsExactly(member3Id);
+		assertThat(memberAgeIndex.findMemberIds(teamBId, 0, 100)).containsExactly(member4Id, member1Id);
+		assertSameAsQuerydsl(teamAId, 0, 100);
+		assertSameAsQuerydsl(teamBId, 0, 100);
+	}
+
+	// 같은 회원의 INSERT가 다시 와도 (재전송 등) 한 번만 들어간다
+	@Test
+	public void duplicateInsertReplacesEntry() {
+		memberAgeIndex.onMemberChanged(new MemberChangedEvent(ChangeType.INSERT, member1Id, teamAId, 10));
+		memberAgeIndex.onMemberChanged(new MemberChangedEvent(ChangeType.INSERT, member1Id, teamBId, 50));
+
+		assertThat(memberAgeIndex.findMemberIds(teamAId, 0, 100)).containsExactly(member2Id, member3Id);
+		assertThat(memberAgeIndex.findMemberIds(teamBId, 0, 100)).containsExactly(member4Id, member1Id);
+		assertThat(memberAgeIndex.size()).isEqualTo(4);
+	}
+
+	// 한 트랜잭션의 여러 변경이 같은 팀에 모여도 결과는 DB와 같다
+	@Test
+	public void manyChangesInOneTransaction() {
+		transactionTemplate.executeWithoutResult(status -> {
+			Team teamA = em.find(Team.class, teamAId);
+			for (int i = 0; i < 50; i++) {
+				em.persist(new Member("new" + i, i % 7 * 5, teamA));
+			}
+			em.find(Member.class, member4Id).changeTeam(teamA);
+			em.find(Member.class, member2Id).setAge(5);
+		});
+
+		assertSameAsQuerydsl(teamAId, 0, 100);
+		assertThat(memberAgeIndex.findMemberIds(teamBId, 0, 100)).isEmpty();
+		assertThat(memberAgeIndex.size()).isEqualTo(54);
+	}
+
+	@Test
+	public void rollbackIsNotApplied() {
+		transactionTemplate.executeWithoutResult(status -> {
+			em.persist(new Member("member6", 20, em.find(Team.class, teamAId)));
+			em.flush();
+			status.setRollbackOnly();
+		});
+
+		assertThat(memberAgeIndex.count(teamAId, 20, 20)).isEqualTo(2);
+	}
+
+	@Test
+	public void rebuildAfterBulkUpdate() {
+		transactionTemplate.executeWithoutResult(status -> memberBulkService.addAge(member.age.goe(20), 1));
+
+		assertThat(memberAgeIndex.findMemberIds(teamAId, 21, 21)).containsExactly(member2Id, member3Id);
+		assertSameAsQuerydsl(teamBId, 0, 100);
+	}
+
+	private void assertSameAsQuerydsl(long teamId, int minAge, int maxAge) {
+		List<Long> expected = transactionTemplate.execute(status -> queryFactory
+			.select(member.Id)
+			.from(member)
+			.where(member.team.Id.eq(teamId), member.age.between(minAge, maxAge))
+			.orderBy(member.age.asc(), member.Id.asc())
+			.fetch());
+		assertThat(memberAgeIndex.findMemberIds(teamId, minAge, maxAge))
+			.containsExactly(expected.stream().mapToLong(Long::longValue).toArray());
+	}
+}
@@ -0,0 +1,119 @@
+package study.querydsl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.support.JpaExecutor;
+
+// 실행 1개 + 대기 1개까지만 받는 executor
+@SpringBootTest(properties = {
+	"querydsl.async.pool-size=1",
+	"querydsl.async.queue-capacity=1",
+	"querydsl.async.timeout=1s"
+})
+class MemberAsyncQueryServiceTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	MemberAsyncQueryService memberAsyncQueryService;
+
+	@Autowired
+	JpaExecutor jpaExecutor;
+
+	// 비동기 조회는 다른 스레드의 트랜잭션에서 실행되므로 데이터를 커밋해 둔다
+	@BeforeEach
+	public void before() {
+		transactionTemplate.executeWithoutResult(status -> {
+			Team teamA = new Team("teamA");
+			em.persist(teamA);
+			em.persist(new Member("member1", 10, teamA));
+			em.persist(new Member("member2", 20, teamA));
+			em.persist(new Member("member3", 30));
+		});
+	}
+
+	@AfterEach
+	public void after() {
+		transactionTemplate.executeWithoutResult(status -> {
+			em.createQuery("delete from Member").executeUpdate();
+			em.createQuery("delete from Team").executeUpdate();
+		});
+	}
+
+	@Test
+	public void searchOnJpaExecutor() throws Exception {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setTeamName("teamA");
+
+		List<MemberDto> result = memberAsyncQueryService.search(condition).get();
+
+		assertThat(result).extracting("username").containsExactly("member1", "member2");
+	}
+
+	@Test
+	public void rejectWhenFull() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+		jpaExecutor.execute(() -> {
+			started.countDown();
+			await(release);
+		});
+		started.await();
+		jpaExecutor.execute(() -> await(release)); // 대기열도 가득 참
+
+		try {
+			assertThatThrownBy(() -> memberAsyncQueryService.search(new MemberSearchCondition()))
+				.isInstanceOf(RejectedExecutionException.class);
+			assertThat(jpaExecutor.getRejected()).isGreaterThanOrEqualTo(1);
+		} finally {
+			release.countDown();
+		}
+		while (jpaExecutor.getInFlight() > 0) {
+			Thread.sleep(10);
+		}
+		assertThat(memberAsyncQueryService.search(new MemberSearchCondition()).get()).hasSize(3);
+	}
+
+	@Test
+	public void timeoutWhileWaiting() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		jpaExecutor.execute(() -> await(release)); // 유일한 실행 슬롯을 잡고 있는다
+
+		try {
+			assertThatThrownBy(() -> memberAsyncQueryService.search(new MemberSearchCondition()).get())
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(TimeoutException.class);
+		} finally {
+			release.countDown();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package study.querydsl.service;
+
+import java.util.Iterator;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.support.BenchmarkSupport;
+import study.querydsl.support.SqlStatementCounter;
+
+/**
+ * 대량 등록 처리량(rows/sec)
+ * 실행: ./gradlew test --tests '*MemberBulkInsertBenchmarkTest' -Dbenchmark=true [-Dbenchmark.rows=1000000]
+ * 비교용으로 -Dbenchmark.batch-size=1 을 주면 batch 없이 row마다 insert 한다.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.jdbc.batch_size=${benchmark.batch-size:100}")
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MemberBulkInsertBenchmarkTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	MemberBulkService memberBulkService;
+
+	@Autowired
+	SqlStatementCounter sqlStatementCounter;
+
+	@Test
+	public void insertThroughput() {
+		int rows = BenchmarkSupport.rows(1_000_000);
+		Team team = new Team("teamA");
+		em.persist(team);
+		em.flush();
+		Long teamId = team.getId();
+
+		// 1M개의 엔티티를 미리 만들어 두지 않고 순회하면서 생성한다
+		Iterable<Member> members = () -> new Iterator<>() {
+			int i = 0;
+
+			@Override
+			public boolean hasNext() {
+				return i < rows;
+			}
+
+			@Override
+			public Member next() {
+				Member m = new Member("member" + i, i++ % 100);
+				m.setTeam(em.getReference(Team.class, teamId)); // 연관관계 주인만 설정
+				return m;
+			}
+		};
+
+		long statements = sqlStatementCounter.getCurrentThreadCount();
+		long start = System.nanoTime();
+		long saved = memberBulkService.persistAll(members);
+		long elapsed = System.nanoTime() - start;
+		statements = sqlStatementCounter.getCurrentThreadCount() - statements;
+
+		System.out.printf("rows=%d, elapsed=%.2fs, throughput=%.0f rows/sec, statements=%d%n",
+			saved, elapsed / 1e9, saved / (elapsed / 1e9), statements);
+	}
+}
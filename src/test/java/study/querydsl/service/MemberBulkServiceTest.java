@@ -0,0 +1,119 @@
+package study.querydsl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.event.MemberChangedEvent;
+import study.querydsl.event.MembersBulkChangedEvent;
+import study.querydsl.support.SqlStatementCounter;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.jdbc.batch_size=10")
+@Transactional
+@RecordApplicationEvents
+class MemberBulkServiceTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	JPAQueryFactory queryFactory;
+
+	@Autowired
+	MemberBulkService memberBulkService;
+
+	@Autowired
+	SqlStatementCounter sqlStatementCounter;
+
+	@Autowired
+	ApplicationEvents events;
+
+	@Test
+	public void persistAll_usesJdbcBatch() {
+		Team teamA = new Team("teamA");
+		em.persist(teamA);
+		em.flush();
+
+		List<Member> members = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			Member m = new Member("member" + i, i);
+			m.setTeam(teamA);
+			members.add(m);
+		}
+		long before = sqlStatementCounter.getCurrentThreadCount();
+
+		long saved = memberBulkService.persistAll(members);
+
+		assertThat(saved).isEqualTo(100);
+		// insert batch 10번 + 시퀀스 호출(allocationSize 50) 몇 번. row마다 왕복하면 100번 이상
+		assertThat(sqlStatementCounter.getCurrentThreadCount() - before).isLessThanOrEqualTo(10 + 3);
+		assertThat(queryFactory.selectFrom(member).fetchCount()).isEqualTo(100);
+	}
+
+	// row마다 MemberChangedEvent를 발행하지 않고 벌크 이벤트 하나만 발행한다
+	@Test
+	public void persistAll_publishesOneBulkEvent() {
+		Member before = new Member("before", 1);
+		em.persist(before); // persistAll 이전의 변경은 평소처럼 발행한다
+
+		List<Member> members = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			members.add(new Member("member" + i, i));
+		}
+		memberBulkService.persistAll(members);
+
+		assertThat(events.stream(MemberChangedEvent.class))
+			.extracting(MemberChangedEvent::getMemberId)
+			.containsExactly(before.getId());
+		assertThat(events.stream(MembersBulkChangedEvent.class)).hasSize(1);
+
+		em.persist(new Member("after", 2)); // 끝난 뒤에는 다시 발행한다
+		em.flush();
+		assertThat(events.stream(MemberChangedEvent.class)).hasSize(2);
+	}
+
+	@Test
+	public void addAge_keepsPersistenceContextConsistent() {
+		Member member1 = new Member("member1", 10);
+		Member member2 = new Member("member2", 20);
+		em.persist(member1);
+		em.persist(member2);
+		member1.setAge(15); // flush되지 않은 변경
+
+		long count = memberBulkService.addAge(member.age.goe(15), 1);
+
+		assertThat(count).isEqualTo(2);
+		// clear 되었으므로 1차 캐시의 이전 값이 아니라 DB 값을 다시 읽는다
+		Member found = em.find(Member.class, member1.getId());
+		assertThat(found).isNotSameAs(member1);
+		assertThat(found.getAge()).isEqualTo(16);
+	}
+
+	@Test
+	public void changeTeamAndDelete() {
+		Team teamA = new Team("teamA");
+		Team teamB = new Team("teamB");
+		em.persist(teamA);
+		em.persist(teamB);
+		em.persist(new Member("member1", 10, teamA));
+		em.persist(new Member("member2", 20, teamA));
+		em.persist(new Member("member3", 30, teamB));
+
+		assertThat(memberBulkService.changeTeam(member.team.eq(teamA), teamB)).isEqualTo(2);
+		assertThat(queryFactory.selectFrom(member).where(member.team.Id.eq(teamB.getId())).fetch()).hasSize(3);
+
+		assertThat(memberBulkService.delete(member.age.lt(25))).isEqualTo(2);
+		assertThat(queryFactory.selectFrom(member).fetch()).extracting("username").containsExactly("member3");
+	}
+}
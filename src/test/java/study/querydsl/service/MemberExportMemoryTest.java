@@ -0,0 +1,93 @@
+package study.querydsl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.support.BenchmarkSupport;
+
+/**
+ * export 중 힙 사용량이 row 수와 무관하게 일정한지 확인한다.
+ * 출력 바이트가 일정량 늘어날 때마다 GC 후 사용 중인 힙을 기록하고, 처음 대비 증가량이 상한을 넘지 않는지 검증한다.
+ * 실행: ./gradlew test --tests '*MemberExportMemoryTest' -Dbenchmark=true [-Dbenchmark.rows=10000000]
+ */
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MemberExportMemoryTest {
+
+	private static final long SAMPLE_EVERY_BYTES = 64L * 1024 * 1024;
+	private static final long MAX_HEAP_GROWTH = 64L * 1024 * 1024;
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	MemberExportService memberExportService;
+
+	@Test
+	public void heapStaysFlat() {
+		int rows = BenchmarkSupport.rows(10_000_000);
+		BenchmarkSupport.seedMembers(em, rows, 100);
+		em.clear();
+
+		HeapSamplingOutputStream out = new HeapSamplingOutputStream();
+		long baseline = usedHeapAfterGc();
+		long start = System.nanoTime();
+
+		long exported = memberExportService.exportNdjson(out);
+
+		long elapsed = System.nanoTime() - start;
+		System.out.printf("rows=%d, bytes=%d, elapsed=%.1fs, baseline=%dMB, samples(MB)=%s%n",
+			exported, out.bytes, elapsed / 1e9, baseline >> 20, out.samplesInMb());
+		assertThat(exported).isEqualTo(rows);
+		for (long used : out.samples) {
+			assertThat(used - baseline).isLessThan(MAX_HEAP_GROWTH);
+		}
+	}
+
+	private static long usedHeapAfterGc() {
+		Runtime runtime = Runtime.getRuntime();
+		System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	// 출력은 버리고 크기만 센다
+	private static class HeapSamplingOutputStream extends OutputStream {
+
+		final List<Long> samples = new ArrayList<>();
+		long bytes;
+		long nextSample = SAMPLE_EVERY_BYTES;
+
+		@Override
+		public void write(int b) {
+			count(1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count(len);
+		}
+
+		private void count(int len) {
+			bytes += len;
+			if (bytes >= nextSample) {
+				samples.add(usedHeapAfterGc());
+				nextSample += SAMPLE_EVERY_BYTES;
+			}
+		}
+
+		List<Long> samplesInMb() {
+			List<Long> mb = new ArrayList<>();
+			samples.forEach(s -> mb.add(s >> 20));
+			return mb;
+		}
+	}
+}
@@ -0,0 +1,10 @@
+package study.querydsl.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * MemberExportServiceTest를 Querydsl SQL export(querydsl.export.engine=sql)로 실행한다
+ */
+@SpringBootTest(properties = {"querydsl.export.clear-interval=2", "querydsl.export.engine=sql"})
+class MemberExportServiceSqlTest extends MemberExportServiceTest {
+}
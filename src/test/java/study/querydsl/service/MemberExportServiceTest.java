@@ -0,0 +1,73 @@
+package study.querydsl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+@SpringBootTest(properties = "querydsl.export.clear-interval=2")
+@Transactional
+class MemberExportServiceTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	MemberExportService memberExportService;
+
+	@BeforeEach
+	public void before() {
+		Team teamA = new Team("teamA");
+		em.persist(teamA);
+
+		em.persist(new Member("member1", 10, teamA));
+		em.persist(new Member("member2", 20, teamA));
+		em.persist(new Member("mem,\"ber3\"", 30)); // CSV 이스케이프 대상, 팀 없음
+		em.flush();
+	}
+
+	@Test
+	public void exportNdjson() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		long rows = memberExportService.exportNdjson(out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertThat(rows).isEqualTo(3);
+		assertThat(lines).hasSize(3);
+		JsonNode first = objectMapper.readTree(lines[0]);
+		assertThat(first.get("username").asText()).isEqualTo("member1");
+		assertThat(first.get("teamName").asText()).isEqualTo("teamA");
+		assertThat(objectMapper.readTree(lines[2]).get("teamName").isNull()).isTrue();
+	}
+
+	@Test
+	public void exportCsv() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		long rows = memberExportService.exportCsv(out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertThat(rows).isEqualTo(3);
+		assertThat(lines[0]).isEqualTo("memberId,username,age,teamId,teamName");
+		assertThat(lines[1]).endsWith(",member1,10," + teamId() + ",teamA");
+		assertThat(lines[3]).endsWith(",\"mem,\"\"ber3\"\"\",30,,");
+	}
+
+	private Long teamId() {
+		return em.createQuery("select t.id from Team t", Long.class).getSingleResult();
+	}
+}
@@ -0,0 +1,104 @@
+package study.querydsl.service;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+import static study.querydsl.support.BenchmarkSupport.millis;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.sun.management.ThreadMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.LongSupplier;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.support.BenchmarkSupport;
+
+/**
+ * 회원+팀 조인 조회: 엔티티(fetch join) vs DTO 프로젝션
+ * 지연 시간과 현재 스레드의 할당 바이트(ThreadMXBean)를 비교한다.
+ * 실행: ./gradlew test --tests '*MemberProjectionBenchmarkTest' -Dbenchmark=true [-Dbenchmark.rows=100000]
+ */
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MemberProjectionBenchmarkTest {
+
+	private static final int WARMUP = 3;
+	private static final int REPEAT = 10;
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	JPAQueryFactory queryFactory;
+
+	@Autowired
+	MemberReadService memberReadService;
+
+	@Test
+	public void entityVsDto() {
+		int rows = BenchmarkSupport.rows(100_000);
+		BenchmarkSupport.seedMembers(em, rows, 100);
+		em.clear();
+
+		Result entity = measure(() -> {
+			List<Member> members = queryFactory
+				.selectFrom(member)
+				.join(member.team, team).fetchJoin()
+				.fetch();
+			long sum = 0;
+			for (Member m : members) {
+				sum += m.getTeam().getName().length();
+			}
+			em.clear();
+			return sum;
+		});
+		Result dto = measure(() -> {
+			List<MemberTeamDto> members = memberReadService.findMemberTeams();
+			long sum = 0;
+			for (MemberTeamDto m : members) {
+				sum += m.getTeamName() == null ? 0 : m.getTeamName().length();
+			}
+			return sum;
+		});
+
+		System.out.printf("rows=%d%n", rows);
+		System.out.printf("%-8s %12s %16s%n", "", "latency(ms)", "alloc(MB)");
+		System.out.printf("%-8s %12.2f %16.2f%n", "entity", millis(entity.nanos), entity.bytes / 1024.0 / 1024.0);
+		System.out.printf("%-8s %12.2f %16.2f%n", "dto", millis(dto.nanos), dto.bytes / 1024.0 / 1024.0);
+	}
+
+	private Result measure(LongSupplier task) {
+		ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		for (int i = 0; i < WARMUP; i++) {
+			task.getAsLong();
+		}
+		long bestNanos = Long.MAX_VALUE;
+		long bestBytes = Long.MAX_VALUE;
+		for (int i = 0; i < REPEAT; i++) {
+			long bytes = threads.getThreadAllocatedBytes(threadId);
+			long start = System.nanoTime();
+			task.getAsLong();
+			bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+			bestBytes = Math.min(bestBytes, threads.getThreadAllocatedBytes(threadId) - bytes);
+		}
+		return new Result(bestNanos, bestBytes);
+	}
+
+	private static class Result {
+		final long nanos;
+		final long bytes;
+
+		Result(long nanos, long bytes) {
+			this.nanos = nanos;
+			this.bytes = bytes;
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package study.querydsl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+@SpringBootTest
+@Transactional
+class MemberReadServiceTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	MemberReadService memberReadService;
+
+	@BeforeEach
+	public void before() {
+		Team teamA = new Team("teamA");
+		Team teamB = new Team("teamB");
+		em.persist(teamA);
+		em.persist(teamB);
+
+		em.persist(new Member("member1", 10, teamA));
+		em.persist(new Member("member2", 20, teamA));
+		em.persist(new Member("member3", 30, teamB));
+		em.persist(new Member("member4", 40)); // 팀 없음
+		em.flush();
+		em.clear();
+	}
+
+	@Test
+	public void findMemberTeams() {
+		List<MemberTeamDto> result = memberReadService.findMemberTeams();
+
+		assertThat(result).extracting("username").containsExactly("member1", "member2", "member3", "member4");
+		assertThat(result).extracting("teamName").containsExactly("teamA", "teamA", "teamB", null);
+		// DTO 조회는 영속성 컨텍스트에 엔티티를 남기지 않는다
+		assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+	}
+
+	@Test
+	public void findMemberTeamsByTeamName() {
+		List<MemberTeamDto> result = memberReadService.findMemberTeamsByTeamName("teamA");
+
+		assertThat(result).extracting("username").containsExactly("member1", "member2");
+	}
+
+	@Test
+	public void findMemberTeam() {
+		Long memberId = memberReadService.findMemberTeams().get(2).getMemberId();
+
+		MemberTeamDto dto = memberReadService.findMemberTeam(memberId);
+
+		assertThat(dto.getUsername()).isEqualTo("member3");
+		assertThat(dto.getAge()).isEqualTo(30);
+		assertThat(dto.getTeamName()).isEqualTo("teamB");
+	}
+
+	@Test
+	public void queryProjectionAndConstructorAreSame() {
+		assertThat(memberReadService.findMemberTeamsByConstructor())
+			.usingRecursiveFieldByFieldElementComparator()
+			.containsExactlyElementsOf(memberReadService.findMemberTeams());
+	}
+}
@@ -0,0 +1,138 @@
+package study.querydsl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.support.BenchmarkSupport;
+import study.querydsl.support.SqlStatementCounter;
+
+/**
+ * 회원 나이 +1 을 여러 스레드에서 반복한다.
+ * - 건마다 트랜잭션 + dirty checking update
+ * - MemberWriteBehindService (마지막에 한 번 flush)
+ * 각각의 처리량과 실행된 SQL 문 수를 출력한다.
+ * ./gradlew test --tests '*MemberWriteBehindLoadBenchmarkTest' -Dbenchmark=true [-Dbenchmark.rows=10000]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = "querydsl.write-behind.flush-interval-millis=3600000")
+class MemberWriteBehindLoadBenchmarkTest {
+
+	private static final int THREADS = 16;
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	MemberWriteBehindService writeBehind;
+
+	@Autowired
+	SqlStatementCounter sqlStatementCounter;
+
+	int rows;
+
+	@BeforeEach
+	public void before() {
+		rows = BenchmarkSupport.rows(10_000);
+		transactionTemplate.executeWithoutResult(status -> BenchmarkSupport.seedMembers(em, rows, 100));
+	}
+
+	@AfterEach
+	public void after() {
+		transactionTemplate.executeWithoutResult(status -> {
+			em.createQuery("delete from Member").executeUpdate();
+			em.createQuery("delete from Team").executeUpdate();
+		});
+	}
+
+	@Test
+	public void updateThroughput() throws Exception {
+		int updates = Integer.getInteger("benchmark.updates", 200_000);
+		AtomicInteger conflicts = new AtomicInteger();
+
+		long ageSum = ageSum();
+		long statements = sqlStatementCounter.getTotal();
+		long elapsed = run(updates / 10, memberId -> {
+			try {
+				transactionTemplate.executeWithoutResult(status -> {
+					Member member = em.find(Member.class, memberId);
+					member.setAge(member.getAge() + 1);
+				});
+			} catch (ObjectOptimisticLockingFailureException e) {
+				conflicts.incrementAndGet(); // 같은 회원을 동시에 수정했다
+			}
+		});
+		print("transaction per update", updates / 10, elapsed, sqlStatementCounter.getTotal() - statements);
+		System.out.printf("  conflicts=%d%n", conflicts.get());
+		assertThat(ageSum() - ageSum).isEqualTo(updates / 10 - conflicts.get());
+
+		ageSum = ageSum();
+		statements = sqlStatementCounter.getTotal();
+		long updateStatements = writeBehind.getStatements();
+		long readbacks = writeBehind.getReadbacks();
+		elapsed = run(updates, memberId -> writeBehind.addAge(memberId, 1));
+		long flushStart = System.nanoTime();
+		writeBehind.flush();
+		long flushElapsed = System.nanoTime() - flushStart;
+		long executed = sqlStatementCounter.getTotal() - statements;
+		print("write-behind", updates, elapsed + flushElapsed, executed);
+		// 절약한 문 수는 executed 전체(update + 변경 이벤트용 select)를 뺀 값이다. readback도 flush의 비용이다
+		System.out.printf("  final flush=%.1fms update statements=%d readbacks=%d statements saved=%d%n",
+			BenchmarkSupport.millis(flushElapsed), writeBehind.getStatements() - updateStatements,
+			writeBehind.getReadbacks() - readbacks, updates - executed);
+		assertThat(ageSum() - ageSum).isEqualTo(updates);
+	}
+
+	// updates 건을 THREADS개 스레드에 나눠 임의의 회원에 실행한다
+	private long run(int updates, LongConsumer update) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			long start = System.nanoTime();
+			for (int t = 0; t < THREADS; t++) {
+				int count = updates / THREADS + (t < updates % THREADS ? 1 : 0);
+				futures.add(executor.submit(() -> {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					for (int i = 0; i < count; i++) {
+						update.accept(BenchmarkSupport.ID_BASE + 1 + random.nextInt(rows));
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+			return System.nanoTime() - start;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private long ageSum() {
+		return transactionTemplate.execute(status ->
+			em.createQuery("select sum(m.age) from Member m", Long.class).getSingleResult());
+	}
+
+	private static void print(String name, int updates, long elapsed, long statements) {
+		System.out.printf("%s: updates=%d elapsed=%.1fms throughput=%.0f updates/s statements=%d%n",
+			name, updates, BenchmarkSupport.millis(elapsed), updates / (elapsed / 1_000_000_000.0), statements);
+	}
+}
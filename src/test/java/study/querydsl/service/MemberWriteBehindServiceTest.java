@@ -0,0 +1,159 @@
+package study.querydsl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.event.MemberChangedEvent;
+import study.querydsl.event.MembersChangedEvent;
+import study.querydsl.support.TeamCacheManager;
+
+// 주기적 flush가 끼어들지 않도록 주기를 길게 잡는다
+@SpringBootTest(properties = {
+	"querydsl.write-behind.flush-interval-millis=3600000",
+	"querydsl.write-behind.max-pending=3"
+})
+@RecordApplicationEvents
+class MemberWriteBehindServiceTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	MemberWriteBehindService writeBehind;
+
+	@Autowired
+	TeamStatsService teamStatsService;
+
+	@Autowired
+	ApplicationEvents events;
+
+	List<Member> members;
+
+	@BeforeEach
+	public void before() {
+		// flush는 별도 트랜잭션에서 실행되므로 커밋해 둔다
+		members = transactionTemplate.execute(status -> {
+			Team teamA = new Team("teamA");
+			em.persist(teamA);
+			List<Member> list = List.of(
+				new Member("member1", 10, teamA),
+				new Member("member2", 20, teamA),
+				new Member("member3", 30, teamA),
+				new Member("member4", 40, teamA));
+			list.forEach(em::persist);
+			return list;
+		});
+	}
+
+	@AfterEach
+	public void after() {
+		writeBehind.flush();
+		transactionTemplate.executeWithoutResult(status -> {
+			em.createQuery("delete from Member").executeUpdate();
+			em.createQuery("delete from Team").executeUpdate();
+		});
+	}
+
+	@Test
+	public void coalesceAndFlush() {
+		Long member1 = members.get(0).getId();
+		Long member2 = members.get(1).getId();
+		long updates = writeBehind.getUpdates();
+		long statements = writeBehind.getStatements();
+		long readbacks = writeBehind.getReadbacks();
+		long ageSum = teamStatsService.getByTeamName("teamA").getSum();
+
+		writeBehind.addAge(member1, 1);
+		writeBehind.addAge(member1, 1);
+		writeBehind.addAge(member1, 1);
+		writeBehind.setAge(member2, 50);
+		writeBehind.addAge(member2, 1);
+
+		// flush 전에도 이 노드에서는 변경이 보인다
+		assertThat(writeBehind.getPending()).isEqualTo(2);
+		assertThat(writeBehind.getAge(member1)).isEqualTo(13);
+		assertThat(writeBehind.getAge(member2)).isEqualTo(51);
+		assertThat(ageAndVersion(member1)).containsExactly(10, 0L);
+
+		events.clear();
+		assertThat(writeBehind.flush()).isEqualTo(2);
+
+		// 바뀐 회원 목록을 이벤트 하나로 발행한다
+		assertThat(events.stream(MemberChangedEvent.class)).isEmpty();
+		assertThat(events.stream(MembersChangedEvent.class))
+			.singleElement()
+			.satisfies(event -> assertThat(event.getChanges())
+				.extracting(MemberChangedEvent::getAge)
+				.containsExactlyInAnyOrder(13, 51));
+
+		assertThat(writeBehind.getPending()).isZero();
+		assertThat(ageAndVersion(member1)).containsExactly(13, 1L);
+		assertThat(ageAndVersion(member2)).containsExactly(51, 1L);
+		assertThat(writeBehind.getAge(member1)).isEqualTo(13);
+		assertThat(writeBehind.getUpdates() - updates).isEqualTo(5);
+		// update 2번(age + 3, age = 51). 변경 이벤트용 select 1번은 따로 센다
+		assertThat(writeBehind.getStatements() - statements).isEqualTo(2);
+		assertThat(writeBehind.getReadbacks() - readbacks).isEqualTo(1);
+		// 커밋 이후 이벤트로 통계에 반영된다: member1 +3, member2 +31
+		assertThat(teamStatsService.getByTeamName("teamA").getSum() - ageSum).isEqualTo(34);
+	}
+
+	// flush는 JPQL 벌크 update가 아니므로 팀/Team.members 2차 캐시를 비우지 않는다
+	@Test
+	public void flushKeepsTeamCache() {
+		Long teamId = members.get(0).getTeam().getId();
+		transactionTemplate.executeWithoutResult(status -> em.find(Team.class, teamId).getMembers().size());
+		Cache cache = em.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+		assertThat(cache.containsCollection(TeamCacheManager.MEMBERS_REGION, teamId)).isTrue();
+
+		writeBehind.addAge(members.get(0).getId(), 1);
+		writeBehind.flush();
+
+		assertThat(cache.containsEntity(Team.class, teamId)).isTrue();
+		assertThat(cache.containsCollection(TeamCacheManager.MEMBERS_REGION, teamId)).isTrue();
+		assertThat(ageAndVersion(members.get(0).getId())).containsExactly(11, 1L);
+	}
+
+	@Test
+	public void flushWhenFull() {
+		long flushed = writeBehind.getFlushedMembers();
+
+		for (Member member : members) {
+			writeBehind.addAge(member.getId(), 1);
+		}
+
+		// max-pending=3: 네 번째 회원을 넣기 전에 앞의 세 명을 내보낸다
+		assertThat(writeBehind.getFlushedMembers() - flushed).isEqualTo(3);
+		assertThat(writeBehind.getPending()).isEqualTo(1);
+		assertThat(ageAndVersion(members.get(0).getId())).containsExactly(11, 1L);
+		assertThat(writeBehind.getAge(members.get(3).getId())).isEqualTo(41);
+	}
+
+	@Test
+	public void unknownMember() {
+		assertThat(writeBehind.getAge(-1L)).isNull();
+	}
+
+	private Object[] ageAndVersion(Long memberId) {
+		return transactionTemplate.execute(status -> em
+			.createQuery("select m.age, m.version from Member m where m.id = :id", Object[].class)
+			.setParameter("id", memberId)
+			.getSingleResult());
+	}
+}
@@ -0,0 +1,78 @@
+package study.querydsl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.support.BenchmarkSupport.millis;
+
+import java.util.Map;
+import java.util.function.Supplier;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.AgeStats;
+import study.querydsl.support.BenchmarkSupport;
+
+/**
+ * 팀별 집계: group by 한 번 vs 구간 수(1, 2, 4, ... parallelism)별 병렬 집계
+ * 실행: ./gradlew test --tests '*TeamAgeReportBenchmarkTest' -Dbenchmark=true [-Dbenchmark.rows=2000000]
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TeamAgeReportBenchmarkTest {
+
+	private static final int WARMUP = 2;
+	private static final int REPEAT = 5;
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	TeamAgeReportService teamAgeReportService;
+
+	@BeforeEach
+	public void before() {
+		transactionTemplate.executeWithoutResult(status ->
+			BenchmarkSupport.seedMembers(em, BenchmarkSupport.rows(1_000_000), 100));
+	}
+
+	@AfterEach
+	public void after() {
+		transactionTemplate.executeWithoutResult(status -> {
+			em.createQuery("delete from Member").executeUpdate();
+			em.createQuery("delete from Team").executeUpdate();
+		});
+	}
+
+	@Test
+	public void speedupByPartitions() {
+		Map<String, AgeStats> expected = teamAgeReportService.groupByTeamName();
+		double single = measure(teamAgeReportService::groupByTeamName);
+		System.out.printf("cores=%d single query: %.1f ms%n", Runtime.getRuntime().availableProcessors(), single);
+
+		for (int partitions = 1; partitions <= teamAgeReportService.getParallelism(); partitions *= 2) {
+			int p = partitions;
+			assertThat(teamAgeReportService.groupByTeamNameParallel(p)).isEqualTo(expected);
+			double parallel = measure(() -> teamAgeReportService.groupByTeamNameParallel(p));
+			System.out.printf("partitions=%d: %.1f ms (speedup %.2fx)%n", p, parallel, single / parallel);
+		}
+	}
+
+	// 평균 ms
+	private double measure(Supplier<Map<String, AgeStats>> report) {
+		for (int i = 0; i < WARMUP; i++) {
+			report.get();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < REPEAT; i++) {
+			report.get();
+		}
+		return millis(System.nanoTime() - start) / REPEAT;
+	}
+}
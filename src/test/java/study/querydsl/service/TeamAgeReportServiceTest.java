@@ -0,0 +1,79 @@
+package study.querydsl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.AgeStats;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+/**
+ * 리포트는 별도 EntityManager(커넥션)로 조회하므로 데이터를 커밋해 두고 마지막에 지운다.
+ */
+@SpringBootTest
+class TeamAgeReportServiceTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	TeamAgeReportService teamAgeReportService;
+
+	@BeforeEach
+	public void before() {
+		transactionTemplate.executeWithoutResult(status -> {
+			Team teamA = new Team("teamA");
+			Team teamB = new Team("teamB");
+			em.persist(teamA);
+			em.persist(teamB);
+			for (int i = 0; i < 20; i++) {
+				em.persist(new Member("member" + i, i * 5, i % 2 == 0 ? teamA : teamB));
+			}
+			em.persist(new Member("member20", 99)); // 팀 없음: team.name 그룹에 포함되지 않는다
+		});
+	}
+
+	@AfterEach
+	public void after() {
+		transactionTemplate.executeWithoutResult(status -> {
+			em.createQuery("delete from Member").executeUpdate();
+			em.createQuery("delete from Team").executeUpdate();
+		});
+	}
+
+	@Test
+	public void group() {
+		Map<String, AgeStats> result = teamAgeReportService.groupByTeamName();
+
+		// teamA: 0, 10, ..., 90 / teamB: 5, 15, ..., 95
+		assertThat(result.get("teamA")).isEqualTo(new AgeStats(10, 450, 0, 90));
+		assertThat(result.get("teamB")).isEqualTo(new AgeStats(10, 500, 5, 95));
+		assertThat(result.get("teamB").getAvg()).isEqualTo(50);
+	}
+
+	@Test
+	public void parallelEqualsSingleQuery() {
+		Map<String, AgeStats> expected = teamAgeReportService.groupByTeamName();
+
+		for (int partitions : new int[]{1, 2, 3, 7, 64}) { // 64: 회원 수보다 많은 구간
+			assertThat(teamAgeReportService.groupByTeamNameParallel(partitions)).isEqualTo(expected);
+		}
+	}
+
+	@Test
+	public void emptyTable() {
+		transactionTemplate.executeWithoutResult(status -> em.createQuery("delete from Member").executeUpdate());
+
+		assertThat(teamAgeReportService.groupByTeamNameParallel(4)).isEmpty();
+	}
+}
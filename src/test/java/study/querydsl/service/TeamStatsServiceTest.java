@@ -0,0 +1,124 @@
+package study.querydsl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.AgeStats;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+/**
+ * 집계는 커밋 이후에 반영되므로 트랜잭션을 직접 커밋하고, 마지막에 데이터를 지운다.
+ */
+@SpringBootTest
+class TeamStatsServiceTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	TeamStatsService teamStatsService;
+
+	@Autowired
+	MemberBulkService memberBulkService;
+
+	Long teamAId;
+	Long teamBId;
+	Long member1Id;
+	Long member2Id;
+	Long member3Id;
+
+	@BeforeEach
+	public void before() {
+		teamStatsService.rebuild();
+		transactionTemplate.executeWithoutResult(status -> {
+			Team teamA = new Team("teamA");
+			Team teamB = new Team("teamB");
+			em.persist(teamA);
+			em.persist(teamB);
+			Member member1 = new Member("member1", 10, teamA);
+			Member member2 = new Member("member2", 20, teamA);
+			Member member3 = new Member("member3", 30, teamB);
+			em.persist(member1);
+			em.persist(member2);
+			em.persist(member3);
+			em.persist(new Member("member4", 40, teamB));
+			teamAId = teamA.getId();
+			teamBId = teamB.getId();
+			member1Id = member1.getId();
+			member2Id = member2.getId();
+			member3Id = member3.getId();
+		});
+	}
+
+	@AfterEach
+	public void after() {
+		transactionTemplate.executeWithoutResult(status -> {
+			em.createQuery("delete from Member").executeUpdate();
+			em.createQuery("delete from Team").executeUpdate();
+		});
+		teamStatsService.rebuild();
+	}
+
+	@Test
+	public void insert() {
+		assertThat(teamStatsService.getByTeamName("teamA")).isEqualTo(new AgeStats(2, 30, 10, 20));
+		assertThat(teamStatsService.getByTeamName("teamA").getAvg()).isEqualTo(15);
+		assertThat(teamStatsService.getByTeamName("teamB").getAvg()).isEqualTo(35);
+		assertThat(teamStatsService.getTotal()).isEqualTo(new AgeStats(4, 100, 10, 40));
+		assertThat(teamStatsService.verify()).isEmpty();
+	}
+
+	@Test
+	public void updateAndDelete() {
+		transactionTemplate.executeWithoutResult(status -> {
+			em.find(Member.class, member2Id).setAge(25);
+			em.find(Member.class, member3Id).setTeam(em.find(Team.class, teamAId));
+		});
+		assertThat(teamStatsService.getByTeamName("teamA")).isEqualTo(new AgeStats(3, 65, 10, 30));
+		assertThat(teamStatsService.getByTeamName("teamB")).isEqualTo(new AgeStats(1, 40, 40, 40));
+
+		transactionTemplate.executeWithoutResult(status -> em.remove(em.find(Member.class, member1Id)));
+		assertThat(teamStatsService.getByTeamName("teamA")).isEqualTo(new AgeStats(2, 55, 25, 30)); // min 재계산
+		assertThat(teamStatsService.verify()).isEmpty();
+	}
+
+	@Test
+	public void rollbackIsIgnored() {
+		transactionTemplate.executeWithoutResult(status -> {
+			em.find(Member.class, member1Id).setAge(99);
+			em.flush(); // 리스너는 flush 시점에 호출된다
+			status.setRollbackOnly();
+		});
+
+		assertThat(teamStatsService.getByTeamName("teamA")).isEqualTo(new AgeStats(2, 30, 10, 20));
+		assertThat(teamStatsService.verify()).isEmpty();
+	}
+
+	@Test
+	public void renameTeam() {
+		transactionTemplate.executeWithoutResult(status -> em.find(Team.class, teamBId).setName("teamC"));
+
+		assertThat(teamStatsService.getByTeamName("teamB")).isEqualTo(AgeStats.EMPTY);
+		assertThat(teamStatsService.getByTeamName("teamC")).isEqualTo(new AgeStats(2, 70, 30, 40));
+		assertThat(teamStatsService.verify()).isEmpty();
+	}
+
+	@Test
+	public void bulkUpdateRebuilds() {
+		transactionTemplate.executeWithoutResult(status -> memberBulkService.addAge(member.age.goe(0), 1));
+
+		assertThat(teamStatsService.getTotal()).isEqualTo(new AgeStats(4, 104, 11, 41));
+		assertThat(teamStatsService.verify()).isEmpty();
+	}
+}
@@ -0,0 +1,170 @@
+package study.querydsl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.support.BenchmarkSupport;
+import study.querydsl.support.SqlStatementCounter;
+
+/**
+ * 여러 스레드가 같은 회원들을 팀 사이로 옮기는 스트레스 테스트
+ * 성공한 이동마다 Member.version이 정확히 1씩 올라야 한다. (잃어버린 수정이 없음)
+ * 스레드/이동 수는 -Dbenchmark.threads, -Dbenchmark.moves로 늘릴 수 있다.
+ */
+@SpringBootTest(properties = "querydsl.transfer.max-attempts=100")
+class TeamTransferServiceTest {
+
+	private static final int TEAM_COUNT = 4;
+	private static final int MEMBER_COUNT = 20;
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	JPAQueryFactory queryFactory;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	TeamTransferService teamTransferService;
+
+	@Autowired
+	TeamStatsService teamStatsService;
+
+	@Autowired
+	SqlStatementCounter sqlStatementCounter;
+
+	List<Long> teamIds = new ArrayList<>();
+	List<Long> memberIds = new ArrayList<>();
+
+	@BeforeEach
+	public void before() {
+		teamStatsService.rebuild();
+		transactionTemplate.executeWithoutResult(status -> {
+			List<Team> teams = new ArrayList<>();
+			for (int i = 0; i < TEAM_COUNT; i++) {
+				Team t = new Team("team" + i);
+				em.persist(t);
+				teams.add(t);
+				teamIds.add(t.getId());
+			}
+			for (int i = 0; i < MEMBER_COUNT; i++) {
+				Member m = new Member("member" + i, i, teams.get(i % TEAM_COUNT));
+				em.persist(m);
+				memberIds.add(m.getId());
+			}
+		});
+	}
+
+	@AfterEach
+	public void after() {
+		transactionTemplate.executeWithoutResult(status -> {
+			em.createQuery("delete from Member").executeUpdate();
+			em.createQuery("delete from Team").executeUpdate();
+		});
+		teamStatsService.rebuild();
+	}
+
+	@Test
+	public void transfer() {
+		Long memberId = memberIds.get(0); // team0
+
+		assertThat(teamTransferService.transfer(memberId, teamIds.get(1))).isTrue();
+		assertThat(teamTransferService.transfer(memberId, teamIds.get(1))).isFalse(); // 이미 team1
+
+		Member found = transactionTemplate.execute(status -> {
+			Member m = em.find(Member.class, memberId);
+			m.getTeam().getName();
+			return m;
+		});
+		assertThat(found.getTeam().getName()).isEqualTo("team1");
+		assertThat(found.getVersion()).isEqualTo(1);
+	}
+
+	@Test
+	public void transferDoesNotLoadTeamMembers() {
+		Long memberId = memberIds.get(0); // team0
+
+		long before = sqlStatementCounter.getCurrentThreadCount();
+		assertThat(teamTransferService.transfer(memberId, teamIds.get(1))).isTrue();
+
+		// member select + (팀이 2차 캐시에 없으면) team select + member update. 팀 회원 수와 무관하다
+		assertThat(sqlStatementCounter.getCurrentThreadCount() - before).isLessThanOrEqualTo(3);
+	}
+
+	@Test
+	public void concurrentTransfers() throws Exception {
+		int threads = Integer.getInteger("benchmark.threads", 8);
+		int movesPerThread = Integer.getInteger("benchmark.moves", 100);
+		long versionsBefore = sumOfVersions();
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<Integer>> futures = new ArrayList<>();
+		long start = System.nanoTime();
+		for (int i = 0; i < threads; i++) {
+			futures.add(executor.submit(() -> {
+				int moved = 0;
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				for (int j = 0; j < movesPerThread; j++) {
+					Long memberId = memberIds.get(random.nextInt(MEMBER_COUNT));
+					Long teamId = teamIds.get(random.nextInt(TEAM_COUNT));
+					if (teamTransferService.transfer(memberId, teamId)) {
+						moved++;
+					}
+				}
+				return moved;
+			}));
+		}
+		long moved = 0;
+		for (Future<Integer> future : futures) {
+			moved += future.get();
+		}
+		long elapsed = System.nanoTime() - start;
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+
+		System.out.printf("threads=%d moves=%d moved=%d conflicts=%d throughput=%.0f moves/s%n",
+			threads, threads * movesPerThread, moved, teamTransferService.getConflicts(),
+			threads * movesPerThread / (BenchmarkSupport.millis(elapsed) / 1000));
+
+		assertThat(teamTransferService.getFailures()).isZero();
+		assertThat(sumOfVersions() - versionsBefore).isEqualTo(moved);
+		transactionTemplate.executeWithoutResult(status -> {
+			int total = 0;
+			for (Long teamId : teamIds) {
+				long byForeignKey = queryFactory.select(member.count()).from(member)
+					.where(member.team.Id.eq(teamId)).fetchOne();
+				int byCollection = em.find(Team.class, teamId).getMembers().size(); // 컬렉션 2차 캐시 포함
+				assertThat(byCollection).isEqualTo(byForeignKey);
+				total += byCollection;
+			}
+			assertThat(total).isEqualTo(MEMBER_COUNT);
+		});
+		assertThat(teamStatsService.verify()).isEmpty();
+	}
+
+	private long sumOfVersions() {
+		return transactionTemplate.execute(status -> queryFactory
+			.select(member.version.sum())
+			.from(member)
+			.fetchOne());
+	}
+}
@@ -0,0 +1,55 @@
+package study.querydsl.support;
+
+import javax.persistence.EntityManager;
+
+/**
+ * 벤치마크 테스트 공통 유틸
+ * 벤치마크는 -Dbenchmark=true 일 때만 실행되고, 데이터 크기는 -Dbenchmark.rows로 조정한다.
+ */
+public final class BenchmarkSupport {
+
+	// 시퀀스로 발급되는 id와 겹치지 않도록 벤치마크용 데이터는 큰 id부터 넣는다
+	public static final long ID_BASE = 1_000_000_000L;
+
+	private BenchmarkSupport() {
+	}
+
+	public static int rows(int defaultRows) {
+		return Integer.getInteger("benchmark.rows", defaultRows);
+	}
+
+	/**
+	 * H2 system_range로 회원 데이터를 한 번의 insert 문으로 생성한다. (persist 루프보다 훨씬 빠르다)
+	 * age는 0~99, username은 정렬 가능하도록 0으로 채운 번호를 붙인다.
+	 */
+	public static void seedMembers(EntityManager em, int rows) {
+		seedMembers(em, rows, 0);
+	}
+
+	/**
+	 * teams개의 팀을 만들고 회원을 팀에 골고루 나눠 넣는다. teams가 0이면 팀 없이 회원만 만든다.
+	 */
+	public static void seedMembers(EntityManager em, int rows, int teams) {
+		if (teams > 0) {
+			em.createNativeQuery(
+					"insert into team (id, name, version) " +
+						"select :base + x, concat('team', x), 0 from system_range(1, :teams)")
+				.setParameter("base", ID_BASE)
+				.setParameter("teams", teams)
+				.executeUpdate();
+		}
+		em.createNativeQuery(
+				"insert into member (member_id, username, age, team_id, version) " +
+					"select :base + x, concat('member', lpad(x, 8, '0')), mod(x, 100), " +
+					"case when :teams > 0 then :base + mod(x, :teams) + 1 end, 0 " +
+					"from system_range(1, :rows)")
+			.setParameter("base", ID_BASE)
+			.setParameter("rows", rows)
+			.setParameter("teams", teams)
+			.executeUpdate();
+	}
+
+	public static double millis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+}
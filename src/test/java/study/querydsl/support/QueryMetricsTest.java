@@ -0,0 +1,92 @@
+package study.querydsl.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+// 임계값 0ms: 모든 쿼리를 느린 쿼리로 기록한다
+@SpringBootTest(properties = "querydsl.metrics.slow-query-threshold=0ms")
+@Transactional
+class QueryMetricsTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	JPAQueryFactory queryFactory;
+
+	@Autowired
+	MeterRegistry registry;
+
+	@BeforeEach
+	public void before() {
+		Team teamA = new Team("teamA");
+		em.persist(teamA);
+		em.persist(new Member("member1", 10, teamA));
+		em.persist(new Member("member2", 20, teamA));
+		em.persist(new Member("member3", 30));
+		em.flush();
+		em.clear();
+	}
+
+	@Test
+	public void fetchIsTimedByShape() {
+		List<Member> result = queryFactory
+			.selectFrom(member)
+			.where(member.age.goe(20))
+			.fetch();
+
+		assertThat(result).hasSize(2);
+		Timer timer = registry.get("querydsl.query")
+			.tags("shape", "Member:Member", "operation", "fetch", "outcome", "success")
+			.timer();
+		assertThat(timer.count()).isGreaterThanOrEqualTo(1);
+		DistributionSummary rows = registry.get("querydsl.query.rows")
+			.tags("shape", "Member:Member", "operation", "fetch")
+			.summary();
+		assertThat(rows.max()).isEqualTo(2);
+	}
+
+	@Test
+	public void explicitShapeAndStatementCount() {
+		List<Member> result = ((MeteredJPAQuery<Member>) queryFactory.selectFrom(member))
+			.shape("member.withTeam")
+			.join(member.team, team)
+			.fetch();
+		result.forEach(m -> m.getTeam().getName()); // 팀 조회는 fetch() 밖이므로 statements에 포함되지 않는다
+
+		assertThat(registry.get("querydsl.query.statements")
+			.tags("shape", "member.withTeam", "operation", "fetch")
+			.summary().max()).isEqualTo(1);
+		assertThat(registry.get("querydsl.query.slow")
+			.tags("shape", "member.withTeam")
+			.counter().count()).isGreaterThanOrEqualTo(1);
+	}
+
+	@Test
+	public void fetchOneAndCount() {
+		Member member1 = queryFactory.selectFrom(member).where(member.username.eq("member1")).fetchOne();
+		long count = queryFactory.selectFrom(member).fetchCount();
+
+		assertThat(member1).isNotNull();
+		assertThat(count).isEqualTo(3);
+		assertThat(registry.get("querydsl.query").tags("operation", "fetchOne").timer().count())
+			.isGreaterThanOrEqualTo(1);
+		assertThat(registry.get("querydsl.query").tags("operation", "fetchCount").timer().count())
+			.isGreaterThanOrEqualTo(1);
+	}
+}
@@ -0,0 +1,107 @@
+package study.querydsl.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+import com.querydsl.core.types.ParamNotSetException;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberQueryRepository;
+
+@SpringBootTest
+@Transactional
+class QueryTemplateTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	JPAQueryFactory queryFactory;
+
+	@Autowired
+	QueryTemplateCache queryTemplateCache;
+
+	@Autowired
+	MemberQueryRepository memberQueryRepository;
+
+	@Autowired
+	MeterRegistry registry;
+
+	@BeforeEach
+	public void before() {
+		Team teamA = new Team("teamA");
+		em.persist(teamA);
+		em.persist(new Member("member1", 10, teamA));
+		em.persist(new Member("member2", 20, teamA));
+		em.persist(new Member("member3", 30));
+	}
+
+	// 템플릿 실행도 캐시 키를 shape로 QueryMetrics에 기록된다
+	@Test
+	public void templatedQueriesAreMetered() {
+		memberQueryRepository.findByUsernameAndAge("member1", 10);
+		memberQueryRepository.findByUsernameAndAgeParams("member1", 10);
+
+		assertThat(registry.get("querydsl.query")
+			.tags("shape", "member.findByUsernameAndAge", "operation", "fetchOne", "outcome", "success")
+			.timer().count()).isGreaterThanOrEqualTo(1);
+		assertThat(registry.get("querydsl.query")
+			.tags("shape", "member.findByUsernameAndAgeParams", "operation", "fetch", "outcome", "success")
+			.timer().count()).isGreaterThanOrEqualTo(1);
+	}
+
+	@Test
+	public void sameShapeIsSerializedOnce() {
+		Member member1 = memberQueryRepository.findByUsernameAndAge("member1", 10);
+		int size = queryTemplateCache.size();
+		Member member2 = memberQueryRepository.findByUsernameAndAge("member2", 20);
+
+		assertThat(member1.getUsername()).isEqualTo("member1");
+		assertThat(member2.getUsername()).isEqualTo("member2");
+		assertThat(memberQueryRepository.findByUsernameAndAge("member1", 20)).isNull();
+		assertThat(queryTemplateCache.size()).isEqualTo(size); // 두 번째 호출은 캐시된 템플릿 사용
+		assertThat(memberQueryRepository.findByUsernameAndAgeParams("member3", 30))
+			.extracting("username").containsExactly("member3");
+	}
+
+	@Test
+	public void projectionAndPaging() {
+		Param<String> teamName = new Param<>(String.class, "teamName");
+		QueryTemplate<MemberTeamDto> template = queryTemplateCache.get("test.projection", () -> queryFactory
+			.select(new QMemberTeamDto(member.Id, member.username, member.age, team.Id, team.name))
+			.from(member)
+			.join(member.team, team)
+			.where(team.name.eq(teamName))
+			.orderBy(member.username.desc())
+			.limit(1));
+
+		List<MemberTeamDto> result = template.bind(teamName, "teamA").fetch();
+
+		assertThat(result).extracting("username").containsExactly("member2");
+		assertThat(result.get(0).getTeamName()).isEqualTo("teamA");
+	}
+
+	@Test
+	public void missingParam() {
+		Param<String> username = new Param<>(String.class, "username");
+		QueryTemplate<Member> template = queryTemplateCache.get("test.missingParam", () -> queryFactory
+			.selectFrom(member)
+			.where(member.username.eq(username)));
+
+		assertThatThrownBy(() -> template.unbound().fetch()).isInstanceOf(ParamNotSetException.class);
+	}
+}
@@ -0,0 +1,5 @@
+-- 라우팅 테스트의 read 풀(복제본)용 스키마. 엔티티 매핑이 바뀌면 함께 수정한다
+create sequence if not exists member_seq start with 1 increment by 50;
+create sequence if not exists team_seq start with 1 increment by 50;
+create table if not exists team (id bigint not null, name varchar(255), version bigint, primary key (id));
+create table if not exists member (member_id bigint not null, age integer not null, username varchar(255), team_id bigint, version bigint, primary key (member_id));